@@ -0,0 +1,91 @@
+package com.moonrein.moonEnchant.bench;
+
+import com.moonrein.moonEnchant.enchant.EnchantRegistry;
+import com.moonrein.moonEnchant.enchant.TriggerDispatchTable;
+import com.moonrein.moonEnchant.model.EnchantDefinition;
+import com.moonrein.moonEnchant.model.EnchantTrigger;
+import com.moonrein.moonEnchant.service.EquippedEnchants;
+import com.moonrein.moonEnchant.util.EnchantDataCodec;
+import com.moonrein.moonEnchant.util.EnchantLevels;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.bukkit.inventory.EquipmentSlot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Equipment refresh work after items are decoded: merging six slots into {@link EquippedEnchants}
+ * and counting effects per trigger, plus compiling the dispatch table, which is where per-level
+ * effect resolution happens since it moved out of the trigger path.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EquipmentScanBenchmark {
+    private static final EquipmentSlot[] SLOTS = {
+        EquipmentSlot.HAND,
+        EquipmentSlot.OFF_HAND,
+        EquipmentSlot.HEAD,
+        EquipmentSlot.CHEST,
+        EquipmentSlot.LEGS,
+        EquipmentSlot.FEET
+    };
+
+    @Param({"20", "200", "2000"})
+    public int registrySize;
+
+    @Param({"1", "10", "30"})
+    public int enchantsPerItem;
+
+    private List<EnchantDefinition> definitions;
+    private TriggerDispatchTable dispatchTable;
+    private EnchantLevels[] slotLevels;
+
+    @Setup
+    public void setUp() {
+        EnchantRegistry registry = SyntheticEnchants.registry(registrySize);
+        definitions = List.copyOf(registry.getAll());
+        dispatchTable = registry.getDispatchTable();
+        slotLevels = new EnchantLevels[SLOTS.length];
+        for (int i = 0; i < SLOTS.length; i++) {
+            byte[] item = SyntheticEnchants.encodedItem(registry, enchantsPerItem, 17L * i + registrySize);
+            slotLevels[i] = EnchantDataCodec.decodeLevels(item, registry.getSnapshot());
+        }
+    }
+
+    @Benchmark
+    public int scanEquipment() {
+        EquippedEnchants.Builder builder = EquippedEnchants.builder();
+        for (int i = 0; i < SLOTS.length; i++) {
+            builder.add(SLOTS[i], slotLevels[i]);
+        }
+        EquippedEnchants equipped = builder.build();
+        int mask = 0;
+        for (EnchantTrigger trigger : EnchantTrigger.values()) {
+            for (int i = 0; i < equipped.size(); i++) {
+                TriggerDispatchTable.CompiledTriggerEffects compiled = dispatchTable.get(trigger, equipped.ordinal(i));
+                if (compiled != null && compiled.effectsFor(equipped.maxLevel(i)).length > 0) {
+                    mask |= 1 << trigger.ordinal();
+                }
+            }
+        }
+        return mask;
+    }
+
+    @Benchmark
+    public TriggerDispatchTable compileDispatchTable() {
+        return TriggerDispatchTable.compile(definitions);
+    }
+}
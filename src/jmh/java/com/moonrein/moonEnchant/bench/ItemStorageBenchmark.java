@@ -0,0 +1,73 @@
+package com.moonrein.moonEnchant.bench;
+
+import com.moonrein.moonEnchant.enchant.EnchantRegistry;
+import com.moonrein.moonEnchant.sim.FakeItem;
+import com.moonrein.moonEnchant.util.DecodedEnchantCache;
+import com.moonrein.moonEnchant.util.EnchantDataCodec;
+import com.moonrein.moonEnchant.util.EnchantLevels;
+import com.moonrein.moonEnchant.util.ItemEnchantStorage;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.bukkit.NamespacedKey;
+import org.bukkit.inventory.ItemStack;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Reading enchants off an item: the raw codec, the cached storage path used by equipment refreshes,
+ * and the map form used by commands. The item is a hand-written
+ * {@link FakeItem}, so the storage numbers carry no mock dispatch.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ItemStorageBenchmark {
+    @Param({"20", "200", "2000"})
+    public int registrySize;
+
+    @Param({"1", "10", "30"})
+    public int enchantsPerItem;
+
+    private EnchantRegistry.Snapshot registrySnapshot;
+    private ItemEnchantStorage storage;
+    private ItemStack item;
+    private byte[] data;
+
+    @Setup
+    public void setUp() {
+        EnchantRegistry registry = SyntheticEnchants.registry(registrySize);
+        registrySnapshot = registry.getSnapshot();
+        data = SyntheticEnchants.encodedItem(registry, enchantsPerItem, registrySize);
+        NamespacedKey key = new NamespacedKey("moonenchant", "custom_enchants");
+        storage = new ItemEnchantStorage(key, registry, new DecodedEnchantCache(4096));
+
+        item = new FakeItem(key, data);
+    }
+
+    @Benchmark
+    public EnchantLevels decodeLevels() {
+        return EnchantDataCodec.decodeLevels(data, registrySnapshot);
+    }
+
+    @Benchmark
+    public EnchantLevels cachedEnchantLevels() {
+        return storage.getEnchantLevels(item);
+    }
+
+    @Benchmark
+    public Map<String, Integer> enchantmentMap() {
+        return storage.getEnchantments(item);
+    }
+}
@@ -0,0 +1,104 @@
+package com.moonrein.moonEnchant.bench;
+
+import com.moonrein.moonEnchant.enchant.EnchantIdTable;
+import com.moonrein.moonEnchant.enchant.EnchantRegistry;
+import com.moonrein.moonEnchant.model.AttributeModifierSpec;
+import com.moonrein.moonEnchant.model.EffectRecipient;
+import com.moonrein.moonEnchant.model.EffectSpec;
+import com.moonrein.moonEnchant.model.EnchantDefinition;
+import com.moonrein.moonEnchant.model.EnchantLevelConfig;
+import com.moonrein.moonEnchant.model.EnchantRarity;
+import com.moonrein.moonEnchant.model.EnchantTableRequirement;
+import com.moonrein.moonEnchant.model.EnchantTrigger;
+import com.moonrein.moonEnchant.sim.FakeServer;
+import com.moonrein.moonEnchant.util.EnchantDataCodec;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalDouble;
+import java.util.Set;
+import java.util.SplittableRandom;
+import org.bukkit.inventory.EquipmentSlot;
+import org.bukkit.potion.PotionEffectType;
+
+/**
+ * Deterministic synthetic enchant data for the benchmarks and the load simulation. Potion types are
+ * stubs, and the {@link FakeServer} installed first provides the registries their class needs.
+ */
+public final class SyntheticEnchants {
+    private static final EnchantTrigger[] SECONDARY_TRIGGERS = {
+        EnchantTrigger.PASSIVE,
+        EnchantTrigger.ON_TAKE_DAMAGE,
+        EnchantTrigger.ON_MINE,
+        EnchantTrigger.ON_FISH
+    };
+    private static final PotionEffectType[] POTION_TYPES = new PotionEffectType[8];
+
+    static {
+        FakeServer.install();
+        for (int i = 0; i < POTION_TYPES.length; i++) {
+            POTION_TYPES[i] = FakeServer.stub(PotionEffectType.class);
+        }
+    }
+
+    private SyntheticEnchants() {
+    }
+
+    /**
+     * Every enchant has an ON_HIT effect and one effect on a rotating second trigger; every third
+     * enchant also has level configs so level resolution takes the closest-configured-level path.
+     */
+    public static List<EnchantDefinition> definitions(int count) {
+        List<EnchantDefinition> definitions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String id = "synthetic_" + i;
+            List<EffectSpec> effects = List.of(
+                effect("hit", EnchantTrigger.ON_HIT, EffectRecipient.TARGET, i),
+                effect("extra", SECONDARY_TRIGGERS[i % SECONDARY_TRIGGERS.length], EffectRecipient.SELF, i + 1));
+            Map<Integer, EnchantLevelConfig> levelConfigs = i % 3 == 0
+                ? Map.of(1, new EnchantLevelConfig(OptionalDouble.empty(), List.of("hit")),
+                    3, new EnchantLevelConfig(OptionalDouble.of(0.5), List.of("hit", "extra")))
+                : Map.of();
+            definitions.add(new EnchantDefinition(id, "Synthetic " + i, List.of(), EnchantRarity.COMMON, 5, 10,
+                Set.of(EquipmentSlot.HAND), Set.of(), 1, List.<AttributeModifierSpec>of(), effects, levelConfigs,
+                i % 2 == 0 ? 1.0 : 0.0, 2.0, 10.0, new EnchantTableRequirement(true, 1, 30, 0)));
+        }
+        return definitions;
+    }
+
+    public static EnchantRegistry registry(int count) {
+        EnchantRegistry registry = new EnchantRegistry();
+        List<EnchantDefinition> definitions = definitions(count);
+        List<String> ids = new ArrayList<>(definitions.size());
+        for (EnchantDefinition definition : definitions) {
+            ids.add(definition.getId());
+        }
+        registry.replaceAll(definitions, EnchantIdTable.EMPTY.withIds(ids));
+        return registry;
+    }
+
+    /**
+     * Picks {@code enchantCount} distinct enchants at random levels from the registry.
+     */
+    public static Map<String, Integer> itemEnchants(EnchantRegistry registry, int enchantCount, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        Map<String, Integer> enchants = new LinkedHashMap<>();
+        int count = Math.min(enchantCount, registry.size());
+        while (enchants.size() < count) {
+            EnchantDefinition definition = registry.getByOrdinal(random.nextInt(registry.size()));
+            enchants.put(definition.getId(), 1 + random.nextInt(definition.getMaxLevel()));
+        }
+        return enchants;
+    }
+
+    public static byte[] encodedItem(EnchantRegistry registry, int enchantCount, long seed) {
+        return EnchantDataCodec.encode(itemEnchants(registry, enchantCount, seed),
+            registry.getSnapshot().getIds());
+    }
+
+    private static EffectSpec effect(String key, EnchantTrigger trigger, EffectRecipient recipient, int index) {
+        return new EffectSpec(key, trigger, recipient, POTION_TYPES[index % POTION_TYPES.length], index % 3, 60,
+            0.5, index % 4 == 0 ? 40L : 0L, false, true, true);
+    }
+}
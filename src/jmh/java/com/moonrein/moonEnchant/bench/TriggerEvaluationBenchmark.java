@@ -0,0 +1,83 @@
+package com.moonrein.moonEnchant.bench;
+
+import com.moonrein.moonEnchant.enchant.EnchantRegistry;
+import com.moonrein.moonEnchant.metrics.EnchantMetrics;
+import com.moonrein.moonEnchant.metrics.TraceBuffer;
+import com.moonrein.moonEnchant.model.EnchantTrigger;
+import com.moonrein.moonEnchant.service.EquippedEnchants;
+import com.moonrein.moonEnchant.service.PlayerEnchantState;
+import com.moonrein.moonEnchant.service.PlayerSnapshot;
+import com.moonrein.moonEnchant.service.TriggerEvaluator;
+import com.moonrein.moonEnchant.service.TriggerEvaluator.TriggerComputation;
+import com.moonrein.moonEnchant.util.EnchantDataCodec;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.bukkit.inventory.EquipmentSlot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Trigger evaluation for one player wearing six items, the work done per hit or per passive cycle.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TriggerEvaluationBenchmark {
+    private static final EquipmentSlot[] SLOTS = {
+        EquipmentSlot.HAND,
+        EquipmentSlot.OFF_HAND,
+        EquipmentSlot.HEAD,
+        EquipmentSlot.CHEST,
+        EquipmentSlot.LEGS,
+        EquipmentSlot.FEET
+    };
+
+    @Param({"20", "200", "2000"})
+    public int registrySize;
+
+    @Param({"1", "10", "30"})
+    public int enchantsPerItem;
+
+    private TriggerEvaluator evaluator;
+    private PlayerSnapshot snapshot;
+    private UUID targetId;
+    private long tick;
+
+    @Setup
+    public void setUp() {
+        EnchantRegistry registry = SyntheticEnchants.registry(registrySize);
+        PlayerEnchantState state = new PlayerEnchantState(UUID.randomUUID(), null);
+        state.bindRegistry(registry.getSnapshot(), null, 0L);
+        EquippedEnchants.Builder builder = EquippedEnchants.builder();
+        for (int i = 0; i < SLOTS.length; i++) {
+            byte[] item = SyntheticEnchants.encodedItem(registry, enchantsPerItem, 31L * i + registrySize);
+            builder.add(SLOTS[i], EnchantDataCodec.decodeLevels(item, registry.getSnapshot()));
+        }
+        state.setEquippedEnchants(builder.build(), ~0, new int[EnchantTrigger.values().length]);
+        snapshot = state.getSnapshot();
+        evaluator = new TriggerEvaluator(registry, new EnchantMetrics(), new TraceBuffer(16384));
+        targetId = UUID.randomUUID();
+    }
+
+    @Benchmark
+    public TriggerComputation onHit() {
+        return evaluator.evaluate(snapshot, EnchantTrigger.ON_HIT, targetId, tick++, 0L);
+    }
+
+    @Benchmark
+    public TriggerComputation passive() {
+        return evaluator.evaluate(snapshot, EnchantTrigger.PASSIVE, null, tick++, 0L);
+    }
+}
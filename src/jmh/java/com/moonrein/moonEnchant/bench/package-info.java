@@ -0,0 +1,12 @@
+/**
+ * JMH benchmarks for the trigger, storage and equipment hot paths, run against synthetic
+ * registries of 20 to 2,000 enchants and items carrying 1 to 30 of them. Built only by the
+ * {@code jmh} Maven profile:
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="TriggerEvaluation -prof gc"
+ * </pre>
+ * The default arguments run every benchmark with the GC profiler, which reports allocation per
+ * operation ({@code gc.alloc.rate.norm}).
+ */
+package com.moonrein.moonEnchant.bench;
@@ -0,0 +1,95 @@
+package com.moonrein.moonEnchant.sim;
+
+import io.papermc.paper.persistence.PersistentDataContainerView;
+import java.util.Set;
+import org.bukkit.NamespacedKey;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.persistence.PersistentDataAdapterContext;
+import org.bukkit.persistence.PersistentDataContainer;
+import org.bukkit.persistence.PersistentDataType;
+
+/**
+ * An item whose PDC view holds one byte-array value, which is all the enchant storage reads. Plain
+ * overrides, so benchmark numbers carry no mock dispatch. Anything else the storage never touches
+ * throws, since the server-side delegate behind a real item does not exist here.
+ */
+public final class FakeItem extends ItemStack {
+    private final View view;
+
+    public FakeItem(NamespacedKey key, byte[] data) {
+        this.view = new View(key, data);
+    }
+
+    @Override
+    public boolean hasItemMeta() {
+        return true;
+    }
+
+    @Override
+    public PersistentDataContainerView getPersistentDataContainer() {
+        return view;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return this == other;
+    }
+
+    @Override
+    public int hashCode() {
+        return System.identityHashCode(this);
+    }
+
+    @Override
+    public String toString() {
+        return "FakeItem[" + view.key + "]";
+    }
+
+    private record View(NamespacedKey key, byte[] data) implements PersistentDataContainerView {
+        @Override
+        public <P, C> boolean has(NamespacedKey key, PersistentDataType<P, C> type) {
+            return this.key.equals(key) && type == PersistentDataType.BYTE_ARRAY;
+        }
+
+        @Override
+        public boolean has(NamespacedKey key) {
+            return this.key.equals(key);
+        }
+
+        @Override
+        public <P, C> C get(NamespacedKey key, PersistentDataType<P, C> type) {
+            return has(key, type) ? type.getComplexType().cast(data) : null;
+        }
+
+        @Override
+        public <P, C> C getOrDefault(NamespacedKey key, PersistentDataType<P, C> type, C defaultValue) {
+            C value = get(key, type);
+            return value != null ? value : defaultValue;
+        }
+
+        @Override
+        public Set<NamespacedKey> getKeys() {
+            return Set.of(key);
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return false;
+        }
+
+        @Override
+        public void copyTo(PersistentDataContainer other, boolean replace) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public PersistentDataAdapterContext getAdapterContext() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public byte[] serializeToBytes() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
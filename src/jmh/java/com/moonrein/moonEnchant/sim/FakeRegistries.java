@@ -0,0 +1,85 @@
+package com.moonrein.moonEnchant.sim;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+import io.papermc.paper.registry.RegistryKey;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import org.bukkit.Keyed;
+import org.bukkit.NamespacedKey;
+import org.bukkit.Registry;
+import org.bukkit.attribute.Attribute;
+import org.bukkit.potion.PotionEffectType;
+import org.mockito.Answers;
+
+/**
+ * Empty stand-in registries. Lookups in the potion effect and attribute registries return a stub
+ * per key, so the API constants those classes initialise from the registry resolve; every other
+ * registry finds nothing. Iterating any registry yields no entries.
+ * <p>
+ * Registry class initialisation re-enters this class for each registry field, so the cache is a
+ * plain map under a reentrant lock rather than {@code computeIfAbsent}.
+ */
+final class FakeRegistries {
+    private static final Map<Object, Registry<?>> REGISTRIES = new HashMap<>();
+    private static final Map<String, Object> ELEMENTS = new HashMap<>();
+
+    private FakeRegistries() {
+    }
+
+    static <T extends Keyed> Registry<T> forType(Class<T> type) {
+        return registry(type, type);
+    }
+
+    static <T extends Keyed> Registry<T> forKey(RegistryKey<T> key) {
+        Class<?> elementType = null;
+        if (RegistryKey.MOB_EFFECT.equals(key)) {
+            elementType = PotionEffectType.class;
+        } else if (RegistryKey.ATTRIBUTE.equals(key)) {
+            elementType = Attribute.class;
+        }
+        return registry(key, elementType);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static synchronized <T extends Keyed> Registry<T> registry(Object id, Class<?> elementType) {
+        Registry<?> registry = REGISTRIES.get(id);
+        if (registry == null) {
+            registry = mock(Registry.class, withSettings().stubOnly().defaultAnswer(invocation ->
+                switch (invocation.getMethod().getName()) {
+                    case "get" -> element(elementType, invocation.getArgument(0), false);
+                    case "getOrThrow" -> element(elementType, invocation.getArgument(0), true);
+                    case "iterator" -> Collections.emptyIterator();
+                    case "spliterator" -> Spliterators.emptySpliterator();
+                    case "stream" -> Stream.empty();
+                    default -> Answers.RETURNS_DEFAULTS.answer(invocation);
+                }));
+            REGISTRIES.put(id, registry);
+        }
+        return (Registry<T>) registry;
+    }
+
+    private static synchronized Object element(Class<?> type, Object key, boolean required) {
+        if (type == null) {
+            if (required) {
+                throw new NoSuchElementException("No registry entry " + key);
+            }
+            return null;
+        }
+        String id = type.getName() + '/' + key;
+        Object element = ELEMENTS.get(id);
+        if (element == null) {
+            element = mock(type, withSettings().stubOnly().defaultAnswer(invocation ->
+                "getKey".equals(invocation.getMethod().getName()) && key instanceof NamespacedKey
+                    ? key
+                    : Answers.RETURNS_DEFAULTS.answer(invocation)));
+            ELEMENTS.put(id, element);
+        }
+        return element;
+    }
+}
@@ -0,0 +1,23 @@
+package com.moonrein.moonEnchant.sim;
+
+import io.papermc.paper.registry.RegistryAccess;
+import io.papermc.paper.registry.RegistryKey;
+import org.bukkit.Keyed;
+import org.bukkit.Registry;
+
+/**
+ * Registry access picked up through {@code META-INF/services} when no server implementation is on
+ * the classpath; backs {@link Registry}'s constants with {@link FakeRegistries}.
+ */
+public final class FakeRegistryAccess implements RegistryAccess {
+    @Override
+    @Deprecated
+    public <T extends Keyed> Registry<T> getRegistry(Class<T> type) {
+        return FakeRegistries.forType(type);
+    }
+
+    @Override
+    public <T extends Keyed> Registry<T> getRegistry(RegistryKey<T> key) {
+        return FakeRegistries.forKey(key);
+    }
+}
@@ -0,0 +1,141 @@
+package com.moonrein.moonEnchant.sim;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.lang.reflect.Field;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Logger;
+import org.bukkit.Bukkit;
+import org.bukkit.Keyed;
+import org.bukkit.Server;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitScheduler;
+
+/**
+ * Just enough of a Bukkit server for the plugin to run headless: online players, entity lookup, a
+ * tick counter and a scheduler whose sync tasks run when the driver calls {@link #runSyncTasks()}.
+ * Registries come from {@link FakeRegistries}, so API classes with registry-backed constants load.
+ * <p>
+ * Installed once per JVM, since {@link Bukkit} only holds one server. Mocks are stub-only, so they
+ * do not record invocations and memory stays flat over long runs.
+ */
+public final class FakeServer {
+    private static FakeServer instance;
+
+    private final Server server;
+    private final Thread mainThread;
+    private final Queue<Runnable> syncTasks = new ConcurrentLinkedQueue<>();
+    private final ExecutorService asyncTasks = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "FakeServer-async");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Map<UUID, Player> players = new ConcurrentHashMap<>();
+    private final Map<UUID, Entity> entities = new ConcurrentHashMap<>();
+    private volatile int currentTick;
+
+    private FakeServer() {
+        mainThread = Thread.currentThread();
+        BukkitScheduler scheduler = stub(BukkitScheduler.class);
+        doAnswer(invocation -> {
+            syncTasks.add(invocation.getArgument(1));
+            return null;
+        }).when(scheduler).runTask(any(Plugin.class), any(Runnable.class));
+        doAnswer(invocation -> {
+            asyncTasks.execute(invocation.<Runnable>getArgument(1));
+            return null;
+        }).when(scheduler).runTaskAsynchronously(any(Plugin.class), any(Runnable.class));
+
+        server = stub(Server.class);
+        when(server.getLogger()).thenReturn(Logger.getLogger("FakeServer"));
+        when(server.getScheduler()).thenReturn(scheduler);
+        when(server.getCurrentTick()).thenAnswer(invocation -> currentTick);
+        when(server.isPrimaryThread()).thenAnswer(invocation -> Thread.currentThread() == mainThread);
+        Collection<Player> online = Collections.unmodifiableCollection(players.values());
+        doReturn(online).when(server).getOnlinePlayers();
+        when(server.getPlayer(any(UUID.class))).thenAnswer(invocation -> players.get(invocation.<UUID>getArgument(0)));
+        when(server.getEntity(any(UUID.class))).thenAnswer(invocation -> {
+            UUID id = invocation.getArgument(0);
+            Player player = players.get(id);
+            return player != null ? player : entities.get(id);
+        });
+        when(server.getRegistry(any())).thenAnswer(invocation ->
+            FakeRegistries.forType(invocation.<Class<Keyed>>getArgument(0)));
+    }
+
+    /**
+     * Installs the fake server, or returns the installed one. The calling thread becomes the
+     * simulated main thread.
+     */
+    public static synchronized FakeServer install() {
+        if (instance == null) {
+            instance = new FakeServer();
+            try {
+                // Bukkit.setServer also prints version details the mock cannot provide.
+                Field field = Bukkit.class.getDeclaredField("server");
+                field.setAccessible(true);
+                field.set(null, instance.server);
+            } catch (ReflectiveOperationException ex) {
+                throw new IllegalStateException("Cannot install fake server", ex);
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Stub-only mock: answers stubbed calls but keeps no invocation history.
+     */
+    public static <T> T stub(Class<T> type) {
+        return mock(type, withSettings().stubOnly());
+    }
+
+    public void addPlayer(Player player) {
+        players.put(player.getUniqueId(), player);
+    }
+
+    public void removePlayer(Player player) {
+        players.remove(player.getUniqueId());
+    }
+
+    public void addEntity(Entity entity) {
+        entities.put(entity.getUniqueId(), entity);
+    }
+
+    public int getCurrentTick() {
+        return currentTick;
+    }
+
+    public void advanceTick() {
+        currentTick++;
+    }
+
+    /**
+     * Runs queued sync tasks on the calling thread until the queue is empty.
+     *
+     * @return number of tasks run
+     */
+    public int runSyncTasks() {
+        int count = 0;
+        Runnable task;
+        while ((task = syncTasks.poll()) != null) {
+            task.run();
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,292 @@
+package com.moonrein.moonEnchant.sim;
+
+import static com.moonrein.moonEnchant.sim.FakeServer.stub;
+import static org.mockito.Mockito.when;
+
+import com.moonrein.moonEnchant.bench.SyntheticEnchants;
+import com.moonrein.moonEnchant.config.PluginSettings;
+import com.moonrein.moonEnchant.config.PluginSettingsLoader;
+import com.moonrein.moonEnchant.enchant.EnchantRegistry;
+import com.moonrein.moonEnchant.listener.EnchantListener;
+import com.moonrein.moonEnchant.metrics.EnchantMetrics;
+import com.moonrein.moonEnchant.metrics.LogHistogram;
+import com.moonrein.moonEnchant.service.EnchantExecutor;
+import com.moonrein.moonEnchant.service.EnchantService;
+import com.moonrein.moonEnchant.util.DecodedEnchantCache;
+import com.moonrein.moonEnchant.util.ItemEnchantStorage;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Logger;
+import org.bukkit.NamespacedKey;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.plugin.java.JavaPlugin;
+
+/**
+ * Drives {@link EnchantListener} and {@link EnchantService} with synthetic players on a
+ * {@link FakeServer} and reports what a live server would feel: main-thread time per tick,
+ * executor and apply queue depth, trigger latency from event to applied effect, and allocation per
+ * event. Ticks are paced at 50 ms unless {@code --unpaced} is given, so worker latency is measured
+ * against real tick boundaries.
+ */
+public final class LoadSimulation {
+    private static final long TICK_NANOS = 50_000_000L;
+    private static final Set<String> OPTIONS = Set.of("players", "ticks", "warmup", "registry", "enchants",
+        "hit", "damaged", "mine", "fish", "scroll", "click", "idle", "mode", "threads", "config", "seed",
+        "unpaced");
+
+    private LoadSimulation() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = parseOptions(args);
+        int playerCount = intOption(options, "players", 100);
+        int ticks = intOption(options, "ticks", 1200);
+        int warmup = intOption(options, "warmup", 200);
+        int registrySize = intOption(options, "registry", 200);
+        int enchantsPerItem = intOption(options, "enchants", 5);
+        // Per player per second.
+        double hitRate = doubleOption(options, "hit", 2.0);
+        double damagedRate = doubleOption(options, "damaged", 1.0);
+        double mineRate = doubleOption(options, "mine", 0.5);
+        double fishRate = doubleOption(options, "fish", 0.05);
+        double scrollRate = doubleOption(options, "scroll", 0.5);
+        double clickRate = doubleOption(options, "click", 0.1);
+        double idleShare = doubleOption(options, "idle", 0.25);
+        long seed = intOption(options, "seed", 42);
+        boolean paced = !options.containsKey("unpaced");
+
+        FakeServer server = FakeServer.install();
+        PluginSettings settings = loadSettings(options);
+        EnchantRegistry registry = SyntheticEnchants.registry(registrySize);
+        JavaPlugin plugin = stub(JavaPlugin.class);
+        when(plugin.isEnabled()).thenReturn(true);
+        when(plugin.getLogger()).thenReturn(Logger.getLogger("MoonEnchant"));
+        NamespacedKey key = new NamespacedKey("moonenchant", "custom_enchants");
+        ItemEnchantStorage storage = new ItemEnchantStorage(key, registry, new DecodedEnchantCache(4096));
+        PluginSettings.ExecutorOptions executorOptions = settings.getExecutor();
+        EnchantExecutor executor = new EnchantExecutor(executorOptions.mode(), executorOptions.threads(),
+            executorOptions.maxQueued(), executorOptions.overflowPolicy());
+        EnchantService service = new EnchantService(plugin, registry, storage, executor, settings);
+        EnchantListener listener = new EnchantListener(service);
+        EnchantMetrics metrics = service.getMetrics();
+
+        SplittableRandom random = new SplittableRandom(seed);
+        List<SimulatedPlayer> players = new ArrayList<>(playerCount);
+        for (int i = 0; i < playerCount; i++) {
+            byte[][] hotbar = {
+                SyntheticEnchants.encodedItem(registry, enchantsPerItem, seed + i * 3L),
+                SyntheticEnchants.encodedItem(registry, enchantsPerItem, seed + i * 3L + 1)
+            };
+            byte[] chest = SyntheticEnchants.encodedItem(registry, enchantsPerItem, seed + i * 3L + 2);
+            SimulatedPlayer player = new SimulatedPlayer(i, key, hotbar, chest, random.nextDouble() >= idleShare);
+            server.addPlayer(player.player);
+            server.addEntity(player.target);
+            listener.onJoin(player.join);
+            players.add(player);
+        }
+
+        com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long[] tickNanos = new long[ticks];
+        long events = 0;
+        long executorDepthSum = 0;
+        long applyDepthSum = 0;
+        int executorDepthMax = 0;
+        int applyDepthMax = 0;
+        long mainAllocatedAt = 0;
+        long totalAllocatedAt = 0;
+        EnchantExecutor.Stats statsAt = executor.getStats();
+        long limitedAt = 0;
+        long afkAt = 0;
+        long suppressedAt = 0;
+
+        for (int tick = -warmup; tick < ticks; tick++) {
+            if (tick == 0) {
+                metrics.getTriggerLatency().reset();
+                statsAt = executor.getStats();
+                limitedAt = metrics.getRateLimited();
+                afkAt = metrics.getAfkSkipped();
+                suppressedAt = metrics.getSuppressedEffects();
+                mainAllocatedAt = threads.getCurrentThreadAllocatedBytes();
+                totalAllocatedAt = threads.getTotalThreadAllocatedBytes();
+            }
+            long startedAt = System.nanoTime();
+            server.advanceTick();
+            server.runSyncTasks();
+            int tickEvents = 0;
+            for (SimulatedPlayer player : players) {
+                player.move();
+                if (roll(random, hitRate)) {
+                    listener.onHit(player.hit);
+                    listener.onTakeDamage(player.hit);
+                    tickEvents++;
+                }
+                if (roll(random, damagedRate)) {
+                    listener.onHit(player.damaged);
+                    listener.onTakeDamage(player.damaged);
+                    tickEvents++;
+                }
+                if (roll(random, mineRate)) {
+                    listener.onMine(player.mine);
+                    tickEvents++;
+                }
+                if (roll(random, fishRate)) {
+                    listener.onFish(player.fish);
+                    tickEvents++;
+                }
+                if (roll(random, scrollRate)) {
+                    player.scroll();
+                    listener.onItemHeld(player.itemHeld);
+                    tickEvents++;
+                }
+                if (roll(random, clickRate)) {
+                    listener.onInventoryClick(player.click);
+                    tickEvents++;
+                }
+            }
+            service.tickPassiveEffects();
+            int executorDepth = executor.getQueueDepth();
+            int applyDepth = service.getApplyQueueDepth();
+            listener.onTickEnd(SimulatedPlayer.TICK_END);
+            long elapsed = System.nanoTime() - startedAt;
+
+            if (tick >= 0) {
+                tickNanos[tick] = elapsed;
+                events += tickEvents;
+                executorDepthSum += executorDepth;
+                applyDepthSum += applyDepth;
+                executorDepthMax = Math.max(executorDepthMax, executorDepth);
+                applyDepthMax = Math.max(applyDepthMax, applyDepth);
+            }
+            if (paced) {
+                long remaining = startedAt + TICK_NANOS - System.nanoTime();
+                if (remaining > 0) {
+                    LockSupport.parkNanos(remaining);
+                }
+            }
+        }
+        long mainAllocated = threads.getCurrentThreadAllocatedBytes() - mainAllocatedAt;
+        long totalAllocated = threads.getTotalThreadAllocatedBytes() - totalAllocatedAt;
+        EnchantExecutor.Stats stats = executor.getStats().since(statsAt);
+        executor.shutdown(settings.getExecutor().shutdownTimeoutMillis());
+
+        Arrays.sort(tickNanos);
+        LogHistogram latency = metrics.getTriggerLatency();
+        long perEvent = Math.max(1L, events);
+        System.out.printf(Locale.ROOT, "MoonEnchant load simulation: %d players, %d ticks (+%d warm-up)%s, "
+                + "registry %d, %d enchants per item, executor %s x%d%n",
+            playerCount, ticks, warmup, paced ? "" : " unpaced", registrySize, enchantsPerItem,
+            settings.getExecutor().mode(), settings.getExecutor().threads());
+        System.out.printf(Locale.ROOT, "Events: %d (%.1f per tick), applied triggers %d, rate-limited %d, "
+                + "AFK skipped %d, suppressed effects %d%n",
+            events, (double) events / Math.max(1, ticks), latency.count(), metrics.getRateLimited() - limitedAt,
+            metrics.getAfkSkipped() - afkAt, metrics.getSuppressedEffects() - suppressedAt);
+        System.out.printf(Locale.ROOT, "Main thread per tick (ms): mean %.3f, p50 %.3f, p95 %.3f, p99 %.3f, "
+                + "max %.3f of a 50 ms budget%n",
+            millis(mean(tickNanos)), millis(percentile(tickNanos, 0.50)), millis(percentile(tickNanos, 0.95)),
+            millis(percentile(tickNanos, 0.99)), millis(ticks > 0 ? tickNanos[ticks - 1] : 0));
+        System.out.printf(Locale.ROOT, "Executor queue depth: mean %.2f, max %d; completed %d, shed %d, "
+                + "mean wait %.1f us%n",
+            (double) executorDepthSum / Math.max(1, ticks), executorDepthMax, stats.completed(), stats.shed(),
+            stats.averageWaitMicros());
+        System.out.printf(Locale.ROOT, "Apply queue depth at tick end: mean %.2f, max %d%n",
+            (double) applyDepthSum / Math.max(1, ticks), applyDepthMax);
+        System.out.printf(Locale.ROOT, "Trigger latency, event to applied (ms, bucket upper bounds): "
+                + "p50 %.3f, p95 %.3f, p99 %.3f, max %.3f%n",
+            millis(latency.percentile(0.50)), millis(latency.percentile(0.95)), millis(latency.percentile(0.99)),
+            millis(latency.max()));
+        System.out.printf(Locale.ROOT, "Allocation per event: main thread %d B, all threads %d B "
+                + "(includes stub dispatch and the passive cycle)%n",
+            mainAllocated / perEvent, totalAllocated / perEvent);
+    }
+
+    private static boolean roll(SplittableRandom random, double perSecond) {
+        return perSecond > 0 && random.nextDouble() < perSecond / 20.0;
+    }
+
+    /**
+     * The bundled config.yml, or {@code --config}, with {@code --mode} and {@code --threads}
+     * written over the executor section.
+     */
+    private static PluginSettings loadSettings(Map<String, String> options) throws IOException {
+        File file = File.createTempFile("moonenchant-sim", ".yml");
+        file.deleteOnExit();
+        String configPath = options.get("config");
+        if (configPath != null) {
+            Files.copy(Path.of(configPath), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            try (InputStream in = LoadSimulation.class.getClassLoader().getResourceAsStream("config.yml")) {
+                if (in != null) {
+                    Files.copy(in, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+        }
+        YamlConfiguration config = YamlConfiguration.loadConfiguration(file);
+        if (options.containsKey("mode")) {
+            config.set("performance.executor.mode", options.get("mode"));
+        }
+        if (options.containsKey("threads")) {
+            config.set("performance.executor.threads", intOption(options, "threads", 0));
+        }
+        config.save(file);
+        return new PluginSettingsLoader().load(file);
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            String name = args[i].startsWith("--") ? args[i].substring(2) : null;
+            if (name == null || !OPTIONS.contains(name)) {
+                throw new IllegalArgumentException("Unknown option " + args[i] + "; expected one of --"
+                    + String.join(", --", OPTIONS.stream().sorted().toList()));
+            }
+            boolean hasValue = i + 1 < args.length && !args[i + 1].startsWith("--");
+            options.put(name, hasValue ? args[++i] : "true");
+        }
+        return options;
+    }
+
+    private static int intOption(Map<String, String> options, String name, int fallback) {
+        String value = options.get(name);
+        return value != null ? Integer.parseInt(value) : fallback;
+    }
+
+    private static double doubleOption(Map<String, String> options, String name, double fallback) {
+        String value = options.get(name);
+        return value != null ? Double.parseDouble(value) : fallback;
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0L;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    private static long mean(long[] values) {
+        long sum = 0;
+        for (long value : values) {
+            sum += value;
+        }
+        return values.length == 0 ? 0L : sum / values.length;
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
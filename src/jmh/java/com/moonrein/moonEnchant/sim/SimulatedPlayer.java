@@ -0,0 +1,133 @@
+package com.moonrein.moonEnchant.sim;
+
+import static com.moonrein.moonEnchant.sim.FakeServer.stub;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import com.destroystokyo.paper.event.server.ServerTickEndEvent;
+import java.util.UUID;
+import org.bukkit.Location;
+import org.bukkit.NamespacedKey;
+import org.bukkit.World;
+import org.bukkit.entity.LivingEntity;
+import org.bukkit.entity.Player;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.entity.EntityDamageByEntityEvent;
+import org.bukkit.event.inventory.ClickType;
+import org.bukkit.event.inventory.InventoryAction;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.player.PlayerFishEvent;
+import org.bukkit.event.player.PlayerItemHeldEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.inventory.EquipmentSlot;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.PlayerInventory;
+
+/**
+ * A stub player with enchanted gear, a target to hit, and one pre-built instance of every event the
+ * simulation fires for it, so driving the listener allocates nothing on the harness side.
+ * <p>
+ * The main hand holds one of two hotbar items and {@link #scroll()} switches between them, so
+ * held-item events lead to real equipment changes. Slot 38 (the chestplate) is what inventory
+ * clicks touch. Every player stands in one shared world; moving players walk along the x axis and
+ * idle ones never move, so anti-AFK sees them as idle once its window passes.
+ */
+final class SimulatedPlayer {
+    static final ServerTickEndEvent TICK_END = stub(ServerTickEndEvent.class);
+    private static final World WORLD = world();
+
+    final Player player;
+    final LivingEntity target;
+    final PlayerJoinEvent join;
+    final PlayerQuitEvent quit;
+    final EntityDamageByEntityEvent hit;
+    final EntityDamageByEntityEvent damaged;
+    final BlockBreakEvent mine;
+    final PlayerFishEvent fish;
+    final PlayerItemHeldEvent itemHeld;
+    final InventoryClickEvent click;
+
+    private final boolean moving;
+    private final ItemStack[] hotbar;
+    private final ItemStack chest;
+    private int heldSlot;
+    private double x;
+
+    SimulatedPlayer(int index, NamespacedKey key, byte[][] hotbarData, byte[] chestData, boolean moving) {
+        this.moving = moving;
+        this.hotbar = new ItemStack[hotbarData.length];
+        for (int i = 0; i < hotbarData.length; i++) {
+            hotbar[i] = new FakeItem(key, hotbarData[i]);
+        }
+        this.chest = new FakeItem(key, chestData);
+
+        UUID playerId = new UUID(0x5151L, index);
+        PlayerInventory inventory = stub(PlayerInventory.class);
+        when(inventory.getHeldItemSlot()).thenAnswer(invocation -> heldSlot);
+        when(inventory.getItem(any(EquipmentSlot.class))).thenAnswer(invocation ->
+            switch (invocation.<EquipmentSlot>getArgument(0)) {
+                case HAND -> hotbar[heldSlot];
+                case CHEST -> chest;
+                default -> null;
+            });
+        player = stub(Player.class);
+        when(player.getUniqueId()).thenReturn(playerId);
+        when(player.getName()).thenReturn("sim-" + index);
+        when(player.isOnline()).thenReturn(true);
+        when(player.getInventory()).thenReturn(inventory);
+        when(player.getLocation(any(Location.class))).thenAnswer(invocation -> {
+            Location location = invocation.getArgument(0);
+            location.setWorld(WORLD);
+            location.setX(x);
+            location.setY(64.0);
+            location.setZ(index * 16.0);
+            location.setYaw(0.0f);
+            location.setPitch(0.0f);
+            return location;
+        });
+
+        target = stub(LivingEntity.class);
+        when(target.getUniqueId()).thenReturn(new UUID(0x7a7aL, index));
+
+        join = stub(PlayerJoinEvent.class);
+        when(join.getPlayer()).thenReturn(player);
+        quit = stub(PlayerQuitEvent.class);
+        when(quit.getPlayer()).thenReturn(player);
+        hit = stub(EntityDamageByEntityEvent.class);
+        when(hit.getDamager()).thenReturn(player);
+        when(hit.getEntity()).thenReturn(target);
+        damaged = stub(EntityDamageByEntityEvent.class);
+        when(damaged.getDamager()).thenReturn(target);
+        when(damaged.getEntity()).thenReturn(player);
+        mine = stub(BlockBreakEvent.class);
+        when(mine.getPlayer()).thenReturn(player);
+        fish = stub(PlayerFishEvent.class);
+        when(fish.getPlayer()).thenReturn(player);
+        when(fish.getState()).thenReturn(PlayerFishEvent.State.CAUGHT_FISH);
+        itemHeld = stub(PlayerItemHeldEvent.class);
+        when(itemHeld.getPlayer()).thenReturn(player);
+        click = stub(InventoryClickEvent.class);
+        when(click.getWhoClicked()).thenReturn(player);
+        when(click.getClick()).thenReturn(ClickType.LEFT);
+        when(click.getAction()).thenReturn(InventoryAction.PICKUP_ALL);
+        when(click.getClickedInventory()).thenReturn(inventory);
+        when(click.getSlot()).thenReturn(38);
+    }
+
+    void move() {
+        if (moving) {
+            x += 0.2;
+        }
+    }
+
+    void scroll() {
+        heldSlot = (heldSlot + 1) % hotbar.length;
+    }
+
+    private static World world() {
+        World world = stub(World.class);
+        when(world.getUID()).thenReturn(new UUID(0x3030L, 0L));
+        return world;
+    }
+}
@@ -0,0 +1,21 @@
+/**
+ * Headless load simulation: synthetic players with enchanted gear fire hits, mining, fishing and
+ * inventory events through the real listener and service on a fake server, and the run reports
+ * main-thread time per tick, queue depths, trigger latency and allocation per event. Built by the
+ * {@code jmh} Maven profile:
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.main=com.moonrein.moonEnchant.sim.LoadSimulation -Djmh.args=""
+ * mvn -Pjmh test-compile exec:exec -Djmh.main=com.moonrein.moonEnchant.sim.LoadSimulation \
+ *     -Djmh.args="--players 500 --mode VIRTUAL --hit 4 --unpaced"
+ * </pre>
+ * Options: {@code --players --ticks --warmup --registry --enchants} size the run; {@code --hit
+ * --damaged --mine --fish --scroll --click} are events per player per second; {@code --idle} is
+ * the share of players that never move; {@code --mode --threads} override the executor section of
+ * the bundled config.yml, or of {@code --config <file>}.
+ * <p>
+ * Items are hand-written {@link com.moonrein.moonEnchant.sim.FakeItem}s; the other Bukkit objects
+ * are stub-only Mockito mocks, so main-thread time and allocation include a small, constant
+ * dispatch cost per stubbed call. Compare runs with each other rather than with a live server's
+ * absolute numbers.
+ */
+package com.moonrein.moonEnchant.sim;
@@ -1,33 +1,30 @@
 package com.moonrein.moonEnchant;
 
 import com.moonrein.moonEnchant.command.EnchantCommand;
-import com.moonrein.moonEnchant.config.EnchantSettings;
-import com.moonrein.moonEnchant.config.EnchantSettingsLoader;
-import com.moonrein.moonEnchant.enchant.EnchantConfigLoader;
+import com.moonrein.moonEnchant.config.ConfigReloader;
+import com.moonrein.moonEnchant.config.PluginSettings;
 import com.moonrein.moonEnchant.enchant.EnchantRegistry;
 import com.moonrein.moonEnchant.listener.EnchantListener;
-import com.moonrein.moonEnchant.model.EnchantDefinition;
+import com.moonrein.moonEnchant.metrics.PrometheusExporter;
+import com.moonrein.moonEnchant.service.EnchantExecutor;
 import com.moonrein.moonEnchant.service.EnchantService;
+import com.moonrein.moonEnchant.util.DecodedEnchantCache;
 import com.moonrein.moonEnchant.util.ItemEnchantStorage;
 import java.io.File;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ThreadFactory;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.io.IOException;
 import org.bukkit.NamespacedKey;
 import org.bukkit.plugin.java.JavaPlugin;
 
 public final class MoonEnchant extends JavaPlugin {
     private EnchantRegistry registry;
     private EnchantService enchantService;
-    private ExecutorService enchantExecutor;
+    private EnchantExecutor enchantExecutor;
+    private PluginSettings pluginSettings;
 
     @Override
     public void onEnable() {
         saveDefaultConfig();
         saveResource("config/enchant.yml", false);
-        File enchantFolder = new File(getDataFolder(), "enchants");
-        File settingsFile = new File(getDataFolder(), "config/enchant.yml");
         String[] defaultEnchants = {
             "enchants/rift_edge.yml",
             "enchants/autoreel.yml",
@@ -54,49 +51,53 @@ public final class MoonEnchant extends JavaPlugin {
             saveResource(resource, false);
         }
 
-        EnchantSettingsLoader settingsLoader = new EnchantSettingsLoader();
-        EnchantSettings settings = settingsLoader.load(settingsFile);
-        EnchantConfigLoader loader = new EnchantConfigLoader(settings, getLogger());
         registry = new EnchantRegistry();
-        for (EnchantDefinition definition : loader.loadAll(enchantFolder)) {
-            registry.register(definition);
-        }
+        ConfigReloader reloader = new ConfigReloader(this, registry);
+        ConfigReloader.LoadedConfigs configs = reloader.load();
+        pluginSettings = configs.pluginSettings();
+        registry.publish(configs.registry());
 
-        ItemEnchantStorage storage = new ItemEnchantStorage(new NamespacedKey(this, "custom_enchants"));
-        enchantExecutor = Executors.newFixedThreadPool(
-            Math.max(2, Runtime.getRuntime().availableProcessors() / 2),
-            new EnchantThreadFactory()
-        );
-        enchantService = new EnchantService(this, registry, storage, enchantExecutor);
+        ItemEnchantStorage storage = new ItemEnchantStorage(new NamespacedKey(this, "custom_enchants"), registry,
+            new DecodedEnchantCache(4096));
+        PluginSettings.ExecutorOptions executorOptions = pluginSettings.getExecutor();
+        enchantExecutor = new EnchantExecutor(executorOptions.mode(), executorOptions.threads(),
+            executorOptions.maxQueued(), executorOptions.overflowPolicy());
+        enchantService = new EnchantService(this, registry, storage, enchantExecutor, pluginSettings);
 
         EnchantListener listener = new EnchantListener(enchantService);
         getServer().getPluginManager().registerEvents(listener, this);
 
-        EnchantCommand command = new EnchantCommand(enchantService, registry, loader, enchantFolder);
+        EnchantCommand command = new EnchantCommand(enchantService, registry, reloader);
         if (getCommand("ce") != null) {
             getCommand("ce").setExecutor(command);
             getCommand("ce").setTabCompleter(command);
         }
 
-        getServer().getScheduler().runTaskTimer(this, enchantService::tickPassiveEffects, 20L, 20L);
-    }
-
-    @Override
-    public void onDisable() {
-        if (enchantExecutor != null) {
-            enchantExecutor.shutdownNow();
+        getServer().getScheduler().runTaskTimer(this, enchantService::tickPassiveEffects, 20L, 1L);
+        if (pluginSettings.getMetrics().exportEnabled()) {
+            startMetricsExport();
         }
     }
 
-    private static class EnchantThreadFactory implements ThreadFactory {
-        private final AtomicInteger index = new AtomicInteger(1);
+    private void startMetricsExport() {
+        PrometheusExporter exporter = new PrometheusExporter(enchantService, registry,
+            new File(getDataFolder(), pluginSettings.getMetrics().exportFile()));
+        long period = pluginSettings.getMetrics().exportIntervalSeconds() * 20L;
+        getServer().getScheduler().runTaskTimerAsynchronously(this, () -> {
+            try {
+                exporter.write();
+            } catch (IOException ex) {
+                getLogger().warning("Could not write metrics export: " + ex.getMessage());
+            }
+        }, period, period);
+    }
 
-        @Override
-        public Thread newThread(Runnable runnable) {
-            Thread thread = new Thread(runnable);
-            thread.setName("moonEnchant-worker-" + index.getAndIncrement());
-            thread.setDaemon(true);
-            return thread;
+    @Override
+    public void onDisable() {
+        if (enchantExecutor != null
+            && !enchantExecutor.shutdown(pluginSettings.getExecutor().shutdownTimeoutMillis())) {
+            getLogger().warning("Enchant workers did not finish within "
+                + pluginSettings.getExecutor().shutdownTimeoutMillis() + "ms; remaining tasks were interrupted.");
         }
     }
 }
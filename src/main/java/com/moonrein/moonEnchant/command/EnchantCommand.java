@@ -1,13 +1,25 @@
 package com.moonrein.moonEnchant.command;
 
-import com.moonrein.moonEnchant.enchant.EnchantConfigLoader;
+import com.moonrein.moonEnchant.config.ConfigReloader;
 import com.moonrein.moonEnchant.enchant.EnchantRegistry;
+import com.moonrein.moonEnchant.metrics.EnchantMetrics;
+import com.moonrein.moonEnchant.metrics.LogHistogram;
+import com.moonrein.moonEnchant.metrics.TraceBuffer;
+import com.moonrein.moonEnchant.metrics.TraceReport;
 import com.moonrein.moonEnchant.model.EnchantDefinition;
+import com.moonrein.moonEnchant.model.EnchantTrigger;
+import com.moonrein.moonEnchant.service.EnchantExecutor;
 import com.moonrein.moonEnchant.service.EnchantService;
-import java.io.File;
+import com.moonrein.moonEnchant.util.DecodedEnchantCache;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.IntStream;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.command.Command;
@@ -18,22 +30,25 @@ import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 
 public class EnchantCommand implements CommandExecutor, TabCompleter {
+    private static final int DEFAULT_PROFILE_SAMPLE_EVERY = 8;
+    private static final int DEFAULT_TRACE_LINES = 10;
+    private static final int MAX_TRACE_LINES = 100;
+
     private final EnchantService service;
     private final EnchantRegistry registry;
-    private final EnchantConfigLoader loader;
-    private final File enchantFolder;
+    private final ConfigReloader reloader;
 
-    public EnchantCommand(EnchantService service, EnchantRegistry registry, EnchantConfigLoader loader, File enchantFolder) {
+    public EnchantCommand(EnchantService service, EnchantRegistry registry, ConfigReloader reloader) {
         this.service = service;
         this.registry = registry;
-        this.loader = loader;
-        this.enchantFolder = enchantFolder;
+        this.reloader = reloader;
     }
 
     @Override
     public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
         if (args.length == 0) {
-            sender.sendMessage(ChatColor.AQUA + "MoonEnchant commands: give, list, info, reload, debug, test");
+            sender.sendMessage(ChatColor.AQUA + "MoonEnchant commands: give, list, info, reload, debug, test, stats, "
+                + "profile, trace");
             return true;
         }
         return switch (args[0].toLowerCase()) {
@@ -43,6 +58,9 @@ public class EnchantCommand implements CommandExecutor, TabCompleter {
             case "reload" -> handleReload(sender);
             case "debug" -> handleDebug(sender);
             case "test" -> handleTest(sender);
+            case "stats" -> handleStats(sender);
+            case "profile" -> handleProfile(sender, args);
+            case "trace" -> handleTrace(sender, args);
             default -> {
                 sender.sendMessage(ChatColor.RED + "Unknown subcommand.");
                 yield true;
@@ -53,7 +71,7 @@ public class EnchantCommand implements CommandExecutor, TabCompleter {
     @Override
     public java.util.List<String> onTabComplete(CommandSender sender, Command command, String alias, String[] args) {
         if (args.length == 1) {
-            return java.util.List.of("give", "list", "info", "reload", "debug", "test");
+            return java.util.List.of("give", "list", "info", "reload", "debug", "test", "stats", "profile", "trace");
         }
         if (args.length == 2 && args[0].equalsIgnoreCase("give")) {
             return Bukkit.getOnlinePlayers().stream().map(Player::getName).toList();
@@ -61,6 +79,18 @@ public class EnchantCommand implements CommandExecutor, TabCompleter {
         if (args.length == 2 && args[0].equalsIgnoreCase("info")) {
             return registry.getAll().stream().map(EnchantDefinition::getId).toList();
         }
+        if (args.length == 2 && args[0].equalsIgnoreCase("trace")) {
+            List<String> options = new ArrayList<>();
+            options.add("dump");
+            Bukkit.getOnlinePlayers().forEach(player -> options.add(player.getName()));
+            return options;
+        }
+        if (args.length == 3 && args[0].equalsIgnoreCase("trace") && args[1].equalsIgnoreCase("dump")) {
+            return Bukkit.getOnlinePlayers().stream().map(Player::getName).toList();
+        }
+        if (args.length == 2 && args[0].equalsIgnoreCase("profile")) {
+            return java.util.List.of("start", "stop");
+        }
         if (args.length == 3 && args[0].equalsIgnoreCase("give")) {
             return registry.getAll().stream().map(EnchantDefinition::getId).toList();
         }
@@ -99,7 +129,7 @@ public class EnchantCommand implements CommandExecutor, TabCompleter {
         enchants.put(definition.get().getId(), Math.min(level, definition.get().getMaxLevel()));
         service.setItemEnchantments(item, enchants);
         target.getInventory().setItemInMainHand(item);
-        service.refreshPlayer(target);
+        service.requestFullRefresh(target);
         sender.sendMessage(ChatColor.GREEN + "Applied " + definition.get().getName() + " to item.");
         return true;
     }
@@ -139,11 +169,18 @@ public class EnchantCommand implements CommandExecutor, TabCompleter {
     }
 
     private boolean handleReload(CommandSender sender) {
-        registry.clear();
-        for (EnchantDefinition definition : loader.loadAll(enchantFolder)) {
-            registry.register(definition);
+        boolean started = reloader.reloadAsync(service, result -> {
+            if (result.error() != null) {
+                sender.sendMessage(ChatColor.RED + "Reload failed, keeping current configs: "
+                    + result.error().getMessage());
+                return;
+            }
+            sender.sendMessage(ChatColor.GREEN + "MoonEnchant configs reloaded (" + result.enchantCount()
+                + " enchants, parsed in " + result.parseMillis() + "ms).");
+        });
+        if (!started) {
+            sender.sendMessage(ChatColor.YELLOW + "A reload is already in progress.");
         }
-        sender.sendMessage(ChatColor.GREEN + "MoonEnchant configs reloaded.");
         return true;
     }
 
@@ -152,7 +189,161 @@ public class EnchantCommand implements CommandExecutor, TabCompleter {
             sender.sendMessage(ChatColor.RED + "Only players can use this.");
             return true;
         }
-        service.toggleDebug(player);
+        sendTrace(sender, player.getUniqueId(), player.getName(), DEFAULT_TRACE_LINES);
+        return true;
+    }
+
+    private boolean handleTrace(CommandSender sender, String[] args) {
+        if (args.length < 2) {
+            sender.sendMessage(ChatColor.RED + "Usage: /ce trace <player> [lines] | /ce trace dump [player]");
+            return true;
+        }
+        if (!service.getTrace().isEnabled()) {
+            sender.sendMessage(ChatColor.YELLOW + "Tracing is disabled (debug.trace-capacity is 0).");
+            return true;
+        }
+        if (args[1].equalsIgnoreCase("dump")) {
+            UUID playerId = null;
+            if (args.length >= 3) {
+                Player target = Bukkit.getPlayer(args[2]);
+                if (target == null) {
+                    sender.sendMessage(ChatColor.RED + "Player not found.");
+                    return true;
+                }
+                playerId = target.getUniqueId();
+            }
+            service.dumpTrace(playerId, result -> {
+                if (result.error() != null) {
+                    sender.sendMessage(ChatColor.RED + "Could not write the trace: " + result.error().getMessage());
+                    return;
+                }
+                sender.sendMessage(ChatColor.GREEN + "Trace written to " + result.file().getPath() + ".");
+            });
+            return true;
+        }
+        Player target = Bukkit.getPlayer(args[1]);
+        if (target == null) {
+            sender.sendMessage(ChatColor.RED + "Player not found.");
+            return true;
+        }
+        int lines = DEFAULT_TRACE_LINES;
+        if (args.length >= 3) {
+            try {
+                lines = Math.max(1, Math.min(MAX_TRACE_LINES, Integer.parseInt(args[2])));
+            } catch (NumberFormatException ignored) {
+                lines = DEFAULT_TRACE_LINES;
+            }
+        }
+        sendTrace(sender, target.getUniqueId(), target.getName(), lines);
+        return true;
+    }
+
+    private void sendTrace(CommandSender sender, UUID playerId, String name, int lines) {
+        if (!service.getTrace().isEnabled()) {
+            sender.sendMessage(ChatColor.YELLOW + "Tracing is disabled (debug.trace-capacity is 0).");
+            return;
+        }
+        List<TraceBuffer.Event> events = service.getTrace().recent(playerId, lines);
+        if (events.isEmpty()) {
+            sender.sendMessage(ChatColor.GRAY + "No recent enchant activity traced for " + name + ".");
+            return;
+        }
+        sender.sendMessage(ChatColor.AQUA + "Last " + events.size() + " trace events for " + name
+            + ", newest first:");
+        EnchantRegistry.Snapshot snapshot = registry.getSnapshot();
+        long currentTick = Bukkit.getCurrentTick();
+        for (TraceBuffer.Event event : events) {
+            ChatColor color = event.outcome() == TraceBuffer.Outcome.APPLIED ? ChatColor.GREEN : ChatColor.GRAY;
+            sender.sendMessage(color + "-" + (currentTick - event.tick()) + "t "
+                + TraceReport.describe(event, snapshot));
+        }
+    }
+
+    private boolean handleStats(CommandSender sender) {
+        EnchantMetrics metrics = service.getMetrics();
+        sender.sendMessage(ChatColor.AQUA + "MoonEnchant stats:");
+        List<String> triggers = new ArrayList<>();
+        for (EnchantTrigger trigger : EnchantTrigger.values()) {
+            long events = metrics.getTriggerEvents(trigger);
+            if (events > 0) {
+                triggers.add(trigger + " " + events);
+            }
+        }
+        sender.sendMessage(ChatColor.GRAY + "Trigger events: "
+            + (triggers.isEmpty() ? "none" : String.join(", ", triggers)));
+        sender.sendMessage(ChatColor.GRAY + "Rejected: cooldown " + metrics.getCooldownRejections()
+            + ", chance " + metrics.getChanceRejections() + ", rate-limited " + metrics.getRateLimited()
+            + ", AFK " + metrics.getAfkSkipped() + "; suppressed effects " + metrics.getSuppressedEffects());
+        EnchantExecutor.Stats executor = service.getExecutorStats();
+        sender.sendMessage(ChatColor.GRAY + "Executor: " + executor.mode() + ", queued " + executor.queueDepth()
+            + ", completed " + executor.completed() + ", shed " + executor.shed()
+            + String.format(Locale.ROOT, ", avg wait %.1fus", executor.averageWaitMicros())
+            + "; apply queue " + service.getApplyQueueDepth() + " (dropped " + service.getApplyQueueDropped()
+            + ", merged " + service.getApplyQueueMerged() + ")");
+        sender.sendMessage(ChatColor.GRAY + "Trigger latency " + percentiles(metrics.getTriggerLatency())
+            + ", handoff " + percentiles(metrics.getHandoffLatency()));
+        sender.sendMessage(ChatColor.GRAY + "Refresh " + percentiles(metrics.getRefreshDuration())
+            + ", passive tick " + percentiles(metrics.getPassiveTickDuration()));
+        DecodedEnchantCache.Stats cache = service.getItemCacheStats();
+        long lookups = cache.hits() + cache.misses();
+        sender.sendMessage(ChatColor.GRAY + String.format(Locale.ROOT,
+            "Item cache: %.1f%% hits, %d/%d entries, %d evictions",
+            lookups == 0 ? 0.0 : cache.hits() * 100.0 / lookups, cache.size(), cache.maxSize(), cache.evictions()));
+        EnchantRegistry.Snapshot snapshot = registry.getSnapshot();
+        EnchantMetrics.ProcCounts procs = metrics.getProcCounts();
+        if (procs.getRegistryVersion() != snapshot.getVersion()) {
+            sender.sendMessage(ChatColor.GRAY + "Top procs: none since the last reload");
+            return true;
+        }
+        List<String> top = new ArrayList<>();
+        IntStream.range(0, snapshot.size()).boxed()
+            .filter(ordinal -> procs.forEnchant(ordinal) > 0)
+            .sorted(Comparator.comparingLong((Integer ordinal) -> procs.forEnchant(ordinal)).reversed())
+            .limit(5)
+            .forEach(ordinal -> top.add(snapshot.getByOrdinal(ordinal).getId() + " " + procs.forEnchant(ordinal)));
+        sender.sendMessage(ChatColor.GRAY + "Top procs: " + (top.isEmpty() ? "none" : String.join(", ", top)));
+        return true;
+    }
+
+    private String percentiles(LogHistogram histogram) {
+        return String.format(Locale.ROOT, "p50 %.2fms p99 %.2fms (n=%d)", histogram.percentile(0.5) / 1_000_000.0,
+            histogram.percentile(0.99) / 1_000_000.0, histogram.count());
+    }
+
+    private boolean handleProfile(CommandSender sender, String[] args) {
+        String action = args.length >= 2 ? args[1].toLowerCase(Locale.ROOT) : "";
+        if (action.equals("start")) {
+            int sampleEvery = DEFAULT_PROFILE_SAMPLE_EVERY;
+            if (args.length >= 3) {
+                try {
+                    sampleEvery = Math.max(1, Integer.parseInt(args[2]));
+                } catch (NumberFormatException ignored) {
+                    sender.sendMessage(ChatColor.RED + "Usage: /ce profile start [sample-every]");
+                    return true;
+                }
+            }
+            if (!service.startProfiling(sampleEvery)) {
+                sender.sendMessage(ChatColor.YELLOW + "A profiling session is already running.");
+                return true;
+            }
+            sender.sendMessage(ChatColor.GREEN + "Profiling started, sampling 1 in " + sampleEvery
+                + " evaluations. Run /ce profile stop to write the report.");
+            return true;
+        }
+        if (action.equals("stop")) {
+            boolean stopped = service.stopProfiling(result -> {
+                if (result.error() != null) {
+                    sender.sendMessage(ChatColor.RED + "Could not write the profile: " + result.error().getMessage());
+                    return;
+                }
+                sender.sendMessage(ChatColor.GREEN + "Profile written to " + result.file().getPath() + ".");
+            });
+            if (!stopped) {
+                sender.sendMessage(ChatColor.YELLOW + "No profiling session is running.");
+            }
+            return true;
+        }
+        sender.sendMessage(ChatColor.RED + "Usage: /ce profile <start [sample-every]|stop>");
         return true;
     }
 
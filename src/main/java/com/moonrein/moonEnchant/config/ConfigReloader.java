@@ -0,0 +1,131 @@
+package com.moonrein.moonEnchant.config;
+
+import com.moonrein.moonEnchant.enchant.EnchantConfigLoader;
+import com.moonrein.moonEnchant.enchant.EnchantIdTable;
+import com.moonrein.moonEnchant.enchant.EnchantRegistry;
+import com.moonrein.moonEnchant.model.EnchantDefinition;
+import com.moonrein.moonEnchant.service.EnchantService;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.java.JavaPlugin;
+
+/**
+ * Loads config.yml, config/enchant.yml, the enchant folder and enchant-ids.yml as one unit. Reloads parse
+ * everything and compile the new registry snapshot on an async task, and only touch live state once,
+ * back on the main thread, by swapping in the snapshot and settings.
+ */
+public class ConfigReloader {
+    private final JavaPlugin plugin;
+    private final EnchantRegistry registry;
+    private final AtomicBoolean reloading = new AtomicBoolean();
+
+    public ConfigReloader(JavaPlugin plugin, EnchantRegistry registry) {
+        this.plugin = plugin;
+        this.registry = registry;
+    }
+
+    /**
+     * Parses every config file, numbers newly added enchants in enchant-ids.yml and builds the
+     * registry snapshot without publishing it. Touches no live state, so it is safe to call from any
+     * thread.
+     *
+     * @throws UncheckedIOException if newly numbered enchants could not be saved; items written
+     *                              with unsaved numbers would decode differently after a restart
+     */
+    public LoadedConfigs load() {
+        File dataFolder = plugin.getDataFolder();
+        PluginSettings pluginSettings = new PluginSettingsLoader().load(new File(dataFolder, "config.yml"));
+        EnchantSettings enchantSettings = new EnchantSettingsLoader().load(new File(dataFolder, "config/enchant.yml"));
+        EnchantConfigLoader loader = new EnchantConfigLoader(enchantSettings, plugin.getLogger());
+        List<EnchantDefinition> definitions = loader.loadAll(new File(dataFolder, "enchants"));
+        EnchantRegistry.Snapshot snapshot = registry.build(definitions, loadIds(dataFolder, definitions));
+        return new LoadedConfigs(pluginSettings, enchantSettings, snapshot);
+    }
+
+    private EnchantIdTable loadIds(File dataFolder, List<EnchantDefinition> definitions) {
+        File file = new File(dataFolder, "enchant-ids.yml");
+        EnchantIdTableLoader idLoader = new EnchantIdTableLoader();
+        EnchantIdTable stored = idLoader.load(file);
+        List<String> enchantIds = new ArrayList<>(definitions.size());
+        for (EnchantDefinition definition : definitions) {
+            enchantIds.add(definition.getId());
+        }
+        EnchantIdTable ids = stored.withIds(enchantIds);
+        if (ids != stored) {
+            try {
+                idLoader.save(ids, file);
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Could not save " + file, ex);
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Parses and builds off the main thread, then publishes the result on the main thread: the
+     * registry snapshot is swapped in, the service switches settings, and online players are queued
+     * for a full refresh that drains at the normal per-tick budget.
+     *
+     * @return false if a reload is already in progress
+     */
+    public boolean reloadAsync(EnchantService service, Consumer<Result> callback) {
+        if (!reloading.compareAndSet(false, true)) {
+            return false;
+        }
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            long startedAt = System.nanoTime();
+            LoadedConfigs configs = null;
+            RuntimeException failure = null;
+            try {
+                configs = load();
+            } catch (RuntimeException ex) {
+                failure = ex;
+            }
+            long parseMillis = (System.nanoTime() - startedAt) / 1_000_000L;
+            if (!plugin.isEnabled()) {
+                reloading.set(false);
+                return;
+            }
+            LoadedConfigs loaded = configs;
+            RuntimeException error = failure;
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                try {
+                    if (loaded == null) {
+                        callback.accept(new Result(0, parseMillis, error));
+                        return;
+                    }
+                    registry.publish(loaded.registry());
+                    service.rebindRegistry();
+                    service.applySettings(loaded.pluginSettings());
+                    for (Player player : Bukkit.getOnlinePlayers()) {
+                        service.requestFullRefresh(player);
+                    }
+                    callback.accept(new Result(loaded.registry().size(), parseMillis, null));
+                } finally {
+                    reloading.set(false);
+                }
+            });
+        });
+        return true;
+    }
+
+    /**
+     * @param registry built but not yet published
+     */
+    public record LoadedConfigs(PluginSettings pluginSettings, EnchantSettings enchantSettings,
+                                EnchantRegistry.Snapshot registry) {
+    }
+
+    /**
+     * @param error the parse failure, or {@code null} if the new configs were published
+     */
+    public record Result(int enchantCount, long parseMillis, RuntimeException error) {
+    }
+}
@@ -0,0 +1,50 @@
+package com.moonrein.moonEnchant.config;
+
+import com.moonrein.moonEnchant.enchant.EnchantIdTable;
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+/**
+ * Reads and writes enchant-ids.yml, the persisted {@link EnchantIdTable}. The file is owned by the
+ * plugin: numbers are already stored on items, so editing or reusing one changes what those items
+ * decode to.
+ */
+public class EnchantIdTableLoader {
+    private static final String SECTION = "ids";
+
+    /**
+     * @return the stored table, or {@link EnchantIdTable#EMPTY} if the file does not exist yet
+     * @throws IllegalArgumentException if the file assigns a number twice or a number below 1
+     */
+    public EnchantIdTable load(File file) {
+        if (!file.exists()) {
+            return EnchantIdTable.EMPTY;
+        }
+        YamlConfiguration config = YamlConfiguration.loadConfiguration(file);
+        ConfigurationSection section = config.getConfigurationSection(SECTION);
+        if (section == null) {
+            return EnchantIdTable.EMPTY;
+        }
+        Map<String, Integer> assignments = new HashMap<>();
+        for (String id : section.getKeys(false)) {
+            assignments.put(id, section.getInt(id));
+        }
+        return EnchantIdTable.of(assignments);
+    }
+
+    public void save(EnchantIdTable table, File file) throws IOException {
+        YamlConfiguration config = new YamlConfiguration();
+        config.options().setHeader(List.of(
+            "Numbers stored on items in place of enchant ids.",
+            "Generated by MoonEnchant; never edit or reuse a number."));
+        table.getAssignments().entrySet().stream()
+            .sorted(Map.Entry.comparingByValue())
+            .forEach(entry -> config.set(SECTION + "." + entry.getKey(), entry.getValue()));
+        config.save(file);
+    }
+}
@@ -0,0 +1,118 @@
+package com.moonrein.moonEnchant.config;
+
+import com.moonrein.moonEnchant.model.EnchantTrigger;
+import com.moonrein.moonEnchant.service.ApplyQueue;
+import com.moonrein.moonEnchant.service.EnchantExecutor;
+import java.util.Set;
+
+/**
+ * Settings read from config.yml, grouped by the part of the plugin they tune.
+ */
+public class PluginSettings {
+    private final RefreshOptions refresh;
+    private final ExecutorOptions executor;
+    private final ApplyQueueOptions applyQueue;
+    private final LimiterOptions limiter;
+    private final AntiAfkOptions antiAfk;
+    private final MetricsOptions metrics;
+    private final int traceCapacity;
+
+    public PluginSettings(RefreshOptions refresh, ExecutorOptions executor, ApplyQueueOptions applyQueue,
+                          LimiterOptions limiter, AntiAfkOptions antiAfk, MetricsOptions metrics, int traceCapacity) {
+        this.refresh = refresh;
+        this.executor = executor;
+        this.applyQueue = applyQueue;
+        this.limiter = limiter;
+        this.antiAfk = antiAfk;
+        this.metrics = metrics;
+        this.traceCapacity = traceCapacity;
+    }
+
+    public RefreshOptions getRefresh() {
+        return refresh;
+    }
+
+    public ExecutorOptions getExecutor() {
+        return executor;
+    }
+
+    public ApplyQueueOptions getApplyQueue() {
+        return applyQueue;
+    }
+
+    public LimiterOptions getLimiter() {
+        return limiter;
+    }
+
+    public AntiAfkOptions getAntiAfk() {
+        return antiAfk;
+    }
+
+    public MetricsOptions getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Trigger outcomes kept for {@code /ce trace}, shared by all players, or 0 to disable tracing.
+     */
+    public int getTraceCapacity() {
+        return traceCapacity;
+    }
+
+    /**
+     * @param budgetPerTick          maximum queued equipment refreshes processed at the end of each
+     *                               tick, or 0 for no limit
+     * @param passivePlayersPerBucket target number of players per passive-tick bucket; the bucket
+     *                               count grows with the online count
+     * @param effectThresholdTicks   a triggered effect is not re-applied while the same or a stronger
+     *                               effect has more than this many ticks left; passive effects derive
+     *                               their own threshold from the passive interval
+     */
+    public record RefreshOptions(int budgetPerTick, int passivePlayersPerBucket, int effectThresholdTicks) {
+    }
+
+    /**
+     * @param threads               worker count for {@link EnchantExecutor.Mode#FIXED}; ignored by
+     *                              the other modes
+     * @param shutdownTimeoutMillis how long plugin disable waits for in-flight trigger evaluations
+     *                              before interrupting them
+     * @param maxQueued             trigger evaluations allowed to wait for a worker before the
+     *                              overflow policy sheds load
+     * @param inlineEffectThreshold triggers with at most this many candidate effects are evaluated
+     *                              inline on the main thread
+     */
+    public record ExecutorOptions(EnchantExecutor.Mode mode, int threads, long shutdownTimeoutMillis, int maxQueued,
+                                  EnchantExecutor.OverflowPolicy overflowPolicy, int inlineEffectThreshold) {
+    }
+
+    public record ApplyQueueOptions(int maxSize, ApplyQueue.OverflowPolicy overflowPolicy) {
+    }
+
+    /**
+     * @param maxProcsPerSecond       non-passive effect applications allowed per player per second,
+     *                                or 0 for no limit
+     * @param globalMaxProcsPerSecond non-passive effect applications allowed per second across all
+     *                                players, or 0 for no limit
+     * @param maxEffectStacks         highest potion level an enchant effect may apply
+     *                                (amplifier + 1), or 0 for no cap
+     */
+    public record LimiterOptions(double maxProcsPerSecond, double globalMaxProcsPerSecond, int maxEffectStacks) {
+    }
+
+    /**
+     * @param minMovement blocks a player must move between two passive-tick samples to count as active
+     * @param windowTicks ticks without movement after which a player is treated as AFK
+     * @param triggers    triggers skipped for AFK players; always contains {@link EnchantTrigger#PASSIVE}
+     */
+    public record AntiAfkOptions(boolean enabled, double minMovement, long windowTicks, Set<EnchantTrigger> triggers) {
+        public AntiAfkOptions {
+            triggers = Set.copyOf(triggers);
+        }
+    }
+
+    /**
+     * @param exportFile Prometheus text file the metrics are written to, relative to the plugin data folder
+     */
+    public record MetricsOptions(boolean exportEnabled, String exportFile, int exportIntervalSeconds) {
+    }
+}
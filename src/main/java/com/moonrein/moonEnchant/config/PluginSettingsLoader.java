@@ -0,0 +1,97 @@
+package com.moonrein.moonEnchant.config;
+
+import com.moonrein.moonEnchant.model.EnchantTrigger;
+import com.moonrein.moonEnchant.service.ApplyQueue;
+import com.moonrein.moonEnchant.service.EnchantExecutor;
+import java.io.File;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+public class PluginSettingsLoader {
+    private static final int DEFAULT_REFRESH_BUDGET = 50;
+    private static final int DEFAULT_PASSIVE_PLAYERS_PER_BUCKET = 16;
+    private static final int DEFAULT_APPLY_QUEUE_SIZE = 4096;
+    private static final int DEFAULT_INLINE_EFFECT_THRESHOLD = 2;
+    private static final int DEFAULT_EFFECT_REFRESH_THRESHOLD = 40;
+    private static final long DEFAULT_EXECUTOR_SHUTDOWN_TIMEOUT_MS = 2000L;
+    private static final int DEFAULT_EXECUTOR_MAX_QUEUED = 1024;
+    private static final double DEFAULT_MAX_PROCS_PER_SECOND = 6.0;
+    private static final int DEFAULT_MAX_EFFECT_STACKS = 3;
+    private static final double DEFAULT_ANTI_AFK_MIN_MOVEMENT = 0.02;
+    private static final int DEFAULT_ANTI_AFK_WINDOW_SECONDS = 60;
+    private static final String DEFAULT_METRICS_EXPORT_FILE = "metrics.prom";
+    private static final int DEFAULT_METRICS_EXPORT_INTERVAL_SECONDS = 15;
+    private static final int DEFAULT_TRACE_CAPACITY = 16384;
+    private static final int MAX_TRACE_CAPACITY = 1 << 20;
+
+    public PluginSettings load(File file) {
+        YamlConfiguration config = YamlConfiguration.loadConfiguration(file);
+        int refreshBudget = Math.max(0, config.getInt("performance.refresh-budget-per-tick", DEFAULT_REFRESH_BUDGET));
+        int passivePerBucket = Math.max(1, config.getInt("performance.passive-players-per-bucket",
+            DEFAULT_PASSIVE_PLAYERS_PER_BUCKET));
+        int applyQueueSize = Math.max(1, config.getInt("performance.apply-queue.max-size", DEFAULT_APPLY_QUEUE_SIZE));
+        ApplyQueue.OverflowPolicy applyQueuePolicy = readEnum(config.getString("performance.apply-queue.overflow-policy"),
+            ApplyQueue.OverflowPolicy.class, ApplyQueue.OverflowPolicy.DROP_OLDEST);
+        int inlineThreshold = Math.max(0, config.getInt("performance.inline-effect-threshold",
+            DEFAULT_INLINE_EFFECT_THRESHOLD));
+        int effectRefreshThreshold = Math.max(0, config.getInt("performance.effect-refresh-threshold-ticks",
+            DEFAULT_EFFECT_REFRESH_THRESHOLD));
+        EnchantExecutor.Mode executorMode = readEnum(config.getString("performance.executor.mode"),
+            EnchantExecutor.Mode.class, EnchantExecutor.Mode.FIXED);
+        int executorThreads = config.getInt("performance.executor.threads", 0);
+        if (executorThreads <= 0) {
+            executorThreads = EnchantExecutor.defaultThreads();
+        }
+        long shutdownTimeout = Math.max(0L, config.getLong("performance.executor.shutdown-timeout-ms",
+            DEFAULT_EXECUTOR_SHUTDOWN_TIMEOUT_MS));
+        int executorMaxQueued = Math.max(1, config.getInt("performance.executor.max-queued",
+            DEFAULT_EXECUTOR_MAX_QUEUED));
+        EnchantExecutor.OverflowPolicy executorPolicy = readEnum(config.getString("performance.executor.overflow-policy"),
+            EnchantExecutor.OverflowPolicy.class, EnchantExecutor.OverflowPolicy.DROP_OLDEST);
+        double maxProcsPerSecond = Math.max(0.0, config.getDouble("limits.max-procs-per-second",
+            DEFAULT_MAX_PROCS_PER_SECOND));
+        double globalMaxProcsPerSecond = Math.max(0.0, config.getDouble("limits.global-max-procs-per-second", 0.0));
+        int maxEffectStacks = Math.max(0, config.getInt("limits.max-effect-stacks", DEFAULT_MAX_EFFECT_STACKS));
+        boolean antiAfkEnabled = config.getBoolean("limits.anti-afk.enabled", false);
+        double antiAfkMinMovement = Math.max(0.0, config.getDouble("limits.anti-afk.min-movement",
+            DEFAULT_ANTI_AFK_MIN_MOVEMENT));
+        int antiAfkWindowSeconds = Math.max(1, config.getInt("limits.anti-afk.window-seconds",
+            DEFAULT_ANTI_AFK_WINDOW_SECONDS));
+        Set<EnchantTrigger> antiAfkTriggers = EnumSet.of(EnchantTrigger.PASSIVE);
+        for (String value : config.getStringList("limits.anti-afk.triggers")) {
+            EnchantTrigger trigger = readEnum(value, EnchantTrigger.class, null);
+            if (trigger != null) {
+                antiAfkTriggers.add(trigger);
+            }
+        }
+        boolean metricsExportEnabled = config.getBoolean("metrics.export.enabled", false);
+        String metricsExportFile = config.getString("metrics.export.file", DEFAULT_METRICS_EXPORT_FILE);
+        int metricsExportInterval = Math.max(1, config.getInt("metrics.export.interval-seconds",
+            DEFAULT_METRICS_EXPORT_INTERVAL_SECONDS));
+        int traceCapacity = Math.max(0, Math.min(MAX_TRACE_CAPACITY, config.getInt("debug.trace-capacity",
+            DEFAULT_TRACE_CAPACITY)));
+        return new PluginSettings(
+            new PluginSettings.RefreshOptions(refreshBudget, passivePerBucket, effectRefreshThreshold),
+            new PluginSettings.ExecutorOptions(executorMode, executorThreads, shutdownTimeout, executorMaxQueued,
+                executorPolicy, inlineThreshold),
+            new PluginSettings.ApplyQueueOptions(applyQueueSize, applyQueuePolicy),
+            new PluginSettings.LimiterOptions(maxProcsPerSecond, globalMaxProcsPerSecond, maxEffectStacks),
+            new PluginSettings.AntiAfkOptions(antiAfkEnabled, antiAfkMinMovement, antiAfkWindowSeconds * 20L,
+                antiAfkTriggers),
+            new PluginSettings.MetricsOptions(metricsExportEnabled, metricsExportFile, metricsExportInterval),
+            traceCapacity);
+    }
+
+    private <T extends Enum<T>> T readEnum(String value, Class<T> type, T fallback) {
+        if (value == null) {
+            return fallback;
+        }
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            return fallback;
+        }
+    }
+}
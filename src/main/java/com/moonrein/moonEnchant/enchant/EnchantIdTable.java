@@ -0,0 +1,113 @@
+package com.moonrein.moonEnchant.enchant;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable, append-only mapping of enchant ids to the small numbers stored on items. Unlike
+ * registry ordinals, a number is never reassigned: ids stay in the table after their enchant is
+ * removed, and new ids always get the next free number. Numbers start at 1.
+ */
+public final class EnchantIdTable {
+    public static final EnchantIdTable EMPTY = new EnchantIdTable(Map.of(), new String[1]);
+
+    private final Map<String, Integer> numbers;
+    private final String[] ids;
+
+    private EnchantIdTable(Map<String, Integer> numbers, String[] ids) {
+        this.numbers = numbers;
+        this.ids = ids;
+    }
+
+    /**
+     * Builds a table from stored assignments.
+     *
+     * @throws IllegalArgumentException if a number is below 1 or assigned to two ids
+     */
+    public static EnchantIdTable of(Map<String, Integer> assignments) {
+        int max = 0;
+        for (int number : assignments.values()) {
+            if (number < 1) {
+                throw new IllegalArgumentException("Enchant number must be at least 1: " + number);
+            }
+            max = Math.max(max, number);
+        }
+        String[] ids = new String[max + 1];
+        Map<String, Integer> numbers = new HashMap<>();
+        for (Map.Entry<String, Integer> entry : assignments.entrySet()) {
+            String id = normalize(entry.getKey());
+            int number = entry.getValue();
+            if (ids[number] != null && !ids[number].equals(id)) {
+                throw new IllegalArgumentException("Enchant number " + number + " is assigned to both "
+                    + ids[number] + " and " + id);
+            }
+            ids[number] = id;
+            numbers.put(id, number);
+        }
+        return new EnchantIdTable(Map.copyOf(numbers), ids);
+    }
+
+    /**
+     * Returns a table that also numbers every id in {@code enchantIds}, or this table if all of
+     * them already have a number.
+     */
+    public EnchantIdTable withIds(Collection<String> enchantIds) {
+        Map<String, Integer> extended = new HashMap<>(numbers);
+        List<String> added = new ArrayList<>();
+        for (String enchantId : enchantIds) {
+            String id = normalize(enchantId);
+            if (extended.putIfAbsent(id, ids.length + added.size()) == null) {
+                added.add(id);
+            }
+        }
+        if (added.isEmpty()) {
+            return this;
+        }
+        String[] extendedIds = Arrays.copyOf(ids, ids.length + added.size());
+        for (int i = 0; i < added.size(); i++) {
+            extendedIds[ids.length + i] = added.get(i);
+        }
+        return new EnchantIdTable(Map.copyOf(extended), extendedIds);
+    }
+
+    /**
+     * @return the number of {@code id}, or 0 if it has none
+     */
+    public int getNumber(String id) {
+        if (id == null) {
+            return 0;
+        }
+        Integer number = numbers.get(normalize(id));
+        return number != null ? number : 0;
+    }
+
+    /**
+     * @return the id numbered {@code number}, or {@code null} if the number is unassigned
+     */
+    public String getId(int number) {
+        return number > 0 && number < ids.length ? ids[number] : null;
+    }
+
+    /**
+     * One more than the highest assigned number.
+     */
+    public int limit() {
+        return ids.length;
+    }
+
+    /**
+     * Every assignment, for persisting the table.
+     */
+    public Map<String, Integer> getAssignments() {
+        return numbers;
+    }
+
+    private static String normalize(String id) {
+        return id.toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,30 +1,255 @@
 package com.moonrein.moonEnchant.enchant;
 
+import com.moonrein.moonEnchant.model.EffectSpec;
 import com.moonrein.moonEnchant.model.EnchantDefinition;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.LinkedHashMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Registered enchants, published as an immutable {@link Snapshot} behind one volatile reference.
+ * A snapshot is built completely, which may happen on any thread, and then swapped in by
+ * {@link #publish}, so readers on any thread see either the old or the new registry, never a
+ * partially filled one.
+ */
 public class EnchantRegistry {
-    private final Map<String, EnchantDefinition> enchantments = new LinkedHashMap<>();
+    private final AtomicInteger versions = new AtomicInteger();
+    private volatile Snapshot snapshot = new Snapshot(Map.of(), List.of(), TriggerDispatchTable.empty(),
+        EnchantIdTable.EMPTY, 0);
 
-    public void clear() {
-        enchantments.clear();
+    /**
+     * Builds, but does not publish, a snapshot of {@code definitions} under a new version. Ordinals
+     * are assigned in iteration order; a later definition with the same id replaces an earlier one.
+     * Touches no live state, so it is safe to call from any thread.
+     *
+     * @param ids persisted item numbers; enchants without one are stored on items by id
+     */
+    public Snapshot build(Collection<EnchantDefinition> definitions, EnchantIdTable ids) {
+        Map<String, Integer> ordinals = new HashMap<>();
+        List<EnchantDefinition> enchantments = new ArrayList<>();
+        for (EnchantDefinition definition : definitions) {
+            String id = definition.getId().toLowerCase(Locale.ROOT);
+            Integer existing = ordinals.get(id);
+            if (existing != null) {
+                enchantments.set(existing, definition);
+                continue;
+            }
+            ordinals.put(id, enchantments.size());
+            enchantments.add(definition);
+        }
+        return new Snapshot(Map.copyOf(ordinals), List.copyOf(enchantments),
+            TriggerDispatchTable.compile(enchantments), ids, versions.incrementAndGet());
+    }
+
+    /**
+     * Swaps in a snapshot from {@link #build}; the swap is the only work done here.
+     *
+     * @throws IllegalArgumentException if the snapshot is not newer than the published one
+     */
+    public synchronized void publish(Snapshot next) {
+        if (next.version <= snapshot.version) {
+            throw new IllegalArgumentException("Registry snapshot v" + next.version
+                + " is not newer than the published v" + snapshot.version);
+        }
+        snapshot = next;
     }
 
-    public void register(EnchantDefinition definition) {
-        enchantments.put(definition.getId().toLowerCase(), definition);
+    /**
+     * Builds and publishes in one step, on the calling thread.
+     */
+    public synchronized void replaceAll(Collection<EnchantDefinition> definitions, EnchantIdTable ids) {
+        publish(build(definitions, ids));
+    }
+
+    public Snapshot getSnapshot() {
+        return snapshot;
     }
 
     public Optional<EnchantDefinition> getById(String id) {
-        if (id == null) {
-            return Optional.empty();
-        }
-        return Optional.ofNullable(enchantments.get(id.toLowerCase()));
+        return snapshot.getById(id);
+    }
+
+    /**
+     * Returns the dense ordinal assigned to the enchant at registration, or -1 if unknown.
+     * Ordinals are only stable until the next snapshot is published.
+     */
+    public int getOrdinal(String id) {
+        return snapshot.getOrdinal(id);
+    }
+
+    public EnchantDefinition getByOrdinal(int ordinal) {
+        return snapshot.getByOrdinal(ordinal);
+    }
+
+    public int size() {
+        return snapshot.size();
     }
 
     public Collection<EnchantDefinition> getAll() {
-        return enchantments.values();
+        return snapshot.getAll();
+    }
+
+    public TriggerDispatchTable getDispatchTable() {
+        return snapshot.getDispatchTable();
+    }
+
+    /**
+     * Incremented on every change, so callers can tell when cached ordinals went stale.
+     */
+    public int getVersion() {
+        return snapshot.getVersion();
+    }
+
+    /**
+     * One consistent version of the registry: ordinals, definitions and the compiled dispatch table
+     * always belong together.
+     */
+    public static final class Snapshot {
+        private final Map<String, Integer> ordinals;
+        private final List<EnchantDefinition> enchantments;
+        private final TriggerDispatchTable dispatchTable;
+        private final EnchantIdTable ids;
+        private final int[] ordinalsByNumber;
+        private final int version;
+
+        private Snapshot(Map<String, Integer> ordinals, List<EnchantDefinition> enchantments,
+                         TriggerDispatchTable dispatchTable, EnchantIdTable ids, int version) {
+            this.ordinals = ordinals;
+            this.enchantments = enchantments;
+            this.dispatchTable = dispatchTable;
+            this.ids = ids;
+            this.version = version;
+            this.ordinalsByNumber = new int[ids.limit()];
+            for (int number = 0; number < ordinalsByNumber.length; number++) {
+                String id = ids.getId(number);
+                Integer ordinal = id != null ? ordinals.get(id) : null;
+                ordinalsByNumber[number] = ordinal != null ? ordinal : -1;
+            }
+        }
+
+        public Optional<EnchantDefinition> getById(String id) {
+            return Optional.ofNullable(getByOrdinal(getOrdinal(id)));
+        }
+
+        public int getOrdinal(String id) {
+            if (id == null) {
+                return -1;
+            }
+            Integer ordinal = ordinals.get(id.toLowerCase(Locale.ROOT));
+            return ordinal != null ? ordinal : -1;
+        }
+
+        /**
+         * Ordinal of the enchant with the given persisted item number, or -1 if the number is
+         * unassigned or its enchant is not registered.
+         */
+        public int getOrdinalByNumber(int number) {
+            return number > 0 && number < ordinalsByNumber.length ? ordinalsByNumber[number] : -1;
+        }
+
+        public EnchantIdTable getIds() {
+            return ids;
+        }
+
+        public EnchantDefinition getByOrdinal(int ordinal) {
+            if (ordinal < 0 || ordinal >= enchantments.size()) {
+                return null;
+            }
+            return enchantments.get(ordinal);
+        }
+
+        public int size() {
+            return enchantments.size();
+        }
+
+        public Collection<EnchantDefinition> getAll() {
+            return enchantments;
+        }
+
+        public TriggerDispatchTable getDispatchTable() {
+            return dispatchTable;
+        }
+
+        public int getVersion() {
+            return version;
+        }
+
+        /**
+         * Maps ordinals and cooldown slots of {@code previous} to this snapshot, matching enchants by
+         * id and cooldowns by the potion type their effect applies.
+         */
+        public Remap remapFrom(Snapshot previous) {
+            int[] remappedOrdinals = new int[previous.size()];
+            int[] remappedSlots = new int[previous.dispatchTable.getEffectSlotCount()];
+            Arrays.fill(remappedSlots, -1);
+            for (int oldOrdinal = 0; oldOrdinal < remappedOrdinals.length; oldOrdinal++) {
+                EnchantDefinition oldDefinition = previous.enchantments.get(oldOrdinal);
+                int newOrdinal = getOrdinal(oldDefinition.getId());
+                remappedOrdinals[oldOrdinal] = newOrdinal;
+                if (newOrdinal < 0) {
+                    continue;
+                }
+                int oldBase = previous.dispatchTable.getEffectSlotBase(oldOrdinal);
+                int newBase = dispatchTable.getEffectSlotBase(newOrdinal);
+                List<EffectSpec> oldEffects = oldDefinition.getEffects();
+                List<EffectSpec> newEffects = enchantments.get(newOrdinal).getEffects();
+                for (int index = 0; index < oldEffects.size(); index++) {
+                    for (int newIndex = 0; newIndex < newEffects.size(); newIndex++) {
+                        if (newEffects.get(newIndex).getType().equals(oldEffects.get(index).getType())) {
+                            remappedSlots[oldBase + index] = newBase + newIndex;
+                            break;
+                        }
+                    }
+                }
+            }
+            return new Remap(previous.version, version, remappedOrdinals, remappedSlots);
+        }
+    }
+
+    /**
+     * Ordinal and cooldown slot translation between two registry versions, so state keyed by them
+     * can survive a reload.
+     */
+    public static final class Remap {
+        private final int fromVersion;
+        private final int toVersion;
+        private final int[] ordinals;
+        private final int[] cooldownSlots;
+
+        private Remap(int fromVersion, int toVersion, int[] ordinals, int[] cooldownSlots) {
+            this.fromVersion = fromVersion;
+            this.toVersion = toVersion;
+            this.ordinals = ordinals;
+            this.cooldownSlots = cooldownSlots;
+        }
+
+        public int getFromVersion() {
+            return fromVersion;
+        }
+
+        public int getToVersion() {
+            return toVersion;
+        }
+
+        /**
+         * @return the new ordinal, or -1 if the enchant was removed
+         */
+        public int ordinal(int oldOrdinal) {
+            return oldOrdinal >= 0 && oldOrdinal < ordinals.length ? ordinals[oldOrdinal] : -1;
+        }
+
+        /**
+         * @return the new cooldown slot, or -1 if the enchant was removed or no longer applies the
+         * potion type
+         */
+        public int cooldownSlot(int oldSlot) {
+            return oldSlot >= 0 && oldSlot < cooldownSlots.length ? cooldownSlots[oldSlot] : -1;
+        }
     }
 }
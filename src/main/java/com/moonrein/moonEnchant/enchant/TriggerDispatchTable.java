@@ -0,0 +1,206 @@
+package com.moonrein.moonEnchant.enchant;
+
+import com.moonrein.moonEnchant.model.EffectSpec;
+import com.moonrein.moonEnchant.model.EnchantDefinition;
+import com.moonrein.moonEnchant.model.EnchantLevelConfig;
+import com.moonrein.moonEnchant.model.EnchantTrigger;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Immutable trigger -> enchant ordinal -> level index of the effects that can actually fire.
+ * Level configs and allowed-effect lists are resolved once at compile time so trigger
+ * evaluation never touches effects bound to other triggers.
+ * <p>
+ * Every effect of every enchant also gets a dense effect slot, {@code base(ordinal) + effect index},
+ * used to key primitive per-player tables. Cooldowns are kept per enchant and potion type, so
+ * effects of one enchant that apply the same potion share a cooldown slot: the effect slot of the
+ * first of them.
+ */
+public final class TriggerDispatchTable {
+    private static final TriggerDispatchTable EMPTY = new TriggerDispatchTable(
+        new CompiledTriggerEffects[EnchantTrigger.values().length][0], new int[0], new int[0]);
+    private static final EffectSpec[] NO_EFFECTS = new EffectSpec[0];
+    private static final int[] NO_SLOTS = new int[0];
+
+    private final CompiledTriggerEffects[][] byTrigger;
+    private final int[] slotBases;
+    private final int[] cooldownSlots;
+
+    private TriggerDispatchTable(CompiledTriggerEffects[][] byTrigger, int[] slotBases, int[] cooldownSlots) {
+        this.byTrigger = byTrigger;
+        this.slotBases = slotBases;
+        this.cooldownSlots = cooldownSlots;
+    }
+
+    public static TriggerDispatchTable empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Compiles the table for definitions indexed by their registry ordinal.
+     */
+    public static TriggerDispatchTable compile(List<EnchantDefinition> definitions) {
+        int[] slotBases = new int[definitions.size()];
+        int effectSlotCount = 0;
+        for (int ordinal = 0; ordinal < slotBases.length; ordinal++) {
+            slotBases[ordinal] = effectSlotCount;
+            effectSlotCount += definitions.get(ordinal).getEffects().size();
+        }
+        int[] cooldownSlots = new int[effectSlotCount];
+        for (int ordinal = 0; ordinal < slotBases.length; ordinal++) {
+            List<EffectSpec> effects = definitions.get(ordinal).getEffects();
+            for (int index = 0; index < effects.size(); index++) {
+                cooldownSlots[slotBases[ordinal] + index] = slotBases[ordinal] + firstWithType(effects, index);
+            }
+        }
+        EnchantTrigger[] triggers = EnchantTrigger.values();
+        CompiledTriggerEffects[][] byTrigger = new CompiledTriggerEffects[triggers.length][];
+        for (EnchantTrigger trigger : triggers) {
+            CompiledTriggerEffects[] byOrdinal = new CompiledTriggerEffects[definitions.size()];
+            for (int ordinal = 0; ordinal < byOrdinal.length; ordinal++) {
+                byOrdinal[ordinal] = compile(definitions.get(ordinal), trigger, slotBases[ordinal]);
+            }
+            byTrigger[trigger.ordinal()] = byOrdinal;
+        }
+        return new TriggerDispatchTable(byTrigger, slotBases, cooldownSlots);
+    }
+
+    public int getEffectSlotCount() {
+        return cooldownSlots.length;
+    }
+
+    /**
+     * Cooldown slot of the effect at {@code effectSlot}, shared by every effect of the same enchant
+     * that applies the same potion type.
+     */
+    public int getCooldownSlot(int effectSlot) {
+        return cooldownSlots[effectSlot];
+    }
+
+    /**
+     * Effect slot of the first effect of the enchant at {@code ordinal}; its effect {@code i} has
+     * slot {@code base + i}.
+     */
+    public int getEffectSlotBase(int ordinal) {
+        return slotBases[ordinal];
+    }
+
+    public CompiledTriggerEffects get(EnchantTrigger trigger, int ordinal) {
+        CompiledTriggerEffects[] byOrdinal = byTrigger[trigger.ordinal()];
+        if (ordinal < 0 || ordinal >= byOrdinal.length) {
+            return null;
+        }
+        return byOrdinal[ordinal];
+    }
+
+    /**
+     * Index of the first effect in {@code effects} that applies the same potion type as effect
+     * {@code index}, which may be {@code index} itself.
+     */
+    private static int firstWithType(List<EffectSpec> effects, int index) {
+        for (int i = 0; i < index; i++) {
+            if (effects.get(i).getType().equals(effects.get(index).getType())) {
+                return i;
+            }
+        }
+        return index;
+    }
+
+    private static CompiledTriggerEffects compile(EnchantDefinition definition, EnchantTrigger trigger, int slotBase) {
+        int topLevel = definition.getMaxLevel();
+        for (Integer configured : definition.getLevelConfigs().keySet()) {
+            topLevel = Math.max(topLevel, configured);
+        }
+        EffectSpec[][] byLevel = new EffectSpec[topLevel + 1][];
+        int[][] slotsByLevel = new int[topLevel + 1][];
+        boolean any = false;
+        for (int level = 0; level <= topLevel; level++) {
+            EffectSpec[] effects = resolveEffects(definition, trigger, level);
+            byLevel[level] = effects;
+            slotsByLevel[level] = resolveSlots(definition, effects, slotBase);
+            any |= effects.length > 0;
+        }
+        return any ? new CompiledTriggerEffects(definition, byLevel, slotsByLevel) : null;
+    }
+
+    private static int[] resolveSlots(EnchantDefinition definition, EffectSpec[] effects, int slotBase) {
+        if (effects.length == 0) {
+            return NO_SLOTS;
+        }
+        List<EffectSpec> all = definition.getEffects();
+        int[] slots = new int[effects.length];
+        for (int i = 0; i < effects.length; i++) {
+            slots[i] = slotBase + all.indexOf(effects[i]);
+        }
+        return slots;
+    }
+
+    private static EffectSpec[] resolveEffects(EnchantDefinition definition, EnchantTrigger trigger, int level) {
+        EnchantLevelConfig levelConfig = resolveLevelConfig(definition, level);
+        List<String> allowedEffects = levelConfig != null && !levelConfig.effects().isEmpty()
+            ? levelConfig.effects()
+            : null;
+        List<EffectSpec> result = new ArrayList<>();
+        for (EffectSpec effect : definition.getEffects()) {
+            if (effect.getTrigger() != trigger) {
+                continue;
+            }
+            if (allowedEffects != null && !allowedEffects.contains(effect.getKey())) {
+                continue;
+            }
+            result.add(effect);
+        }
+        return result.isEmpty() ? NO_EFFECTS : result.toArray(NO_EFFECTS);
+    }
+
+    private static EnchantLevelConfig resolveLevelConfig(EnchantDefinition definition, int level) {
+        if (level < 1 || definition.getLevelConfigs().isEmpty()) {
+            return null;
+        }
+        EnchantLevelConfig direct = definition.getLevelConfigs().get(level);
+        if (direct != null) {
+            return direct;
+        }
+        int closest = -1;
+        for (Integer configured : definition.getLevelConfigs().keySet()) {
+            if (configured <= level && configured > closest) {
+                closest = configured;
+            }
+        }
+        return closest > 0 ? definition.getLevelConfigs().get(closest) : null;
+    }
+
+    public static final class CompiledTriggerEffects {
+        private final EnchantDefinition definition;
+        private final EffectSpec[][] byLevel;
+        private final int[][] slotsByLevel;
+
+        private CompiledTriggerEffects(EnchantDefinition definition, EffectSpec[][] byLevel, int[][] slotsByLevel) {
+            this.definition = definition;
+            this.byLevel = byLevel;
+            this.slotsByLevel = slotsByLevel;
+        }
+
+        public EnchantDefinition getDefinition() {
+            return definition;
+        }
+
+        public EffectSpec[] effectsFor(int level) {
+            if (level < 0) {
+                return byLevel[0];
+            }
+            return byLevel[Math.min(level, byLevel.length - 1)];
+        }
+
+        /**
+         * Effect slots parallel to {@link #effectsFor(int)} for the same level.
+         */
+        public int[] effectSlotsFor(int level) {
+            if (level < 0) {
+                return slotsByLevel[0];
+            }
+            return slotsByLevel[Math.min(level, slotsByLevel.length - 1)];
+        }
+    }
+}
@@ -1,6 +1,10 @@
 package com.moonrein.moonEnchant.listener;
 
+import com.destroystokyo.paper.event.server.ServerTickEndEvent;
 import com.moonrein.moonEnchant.service.EnchantService;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
@@ -9,14 +13,23 @@ import org.bukkit.event.block.BlockBreakEvent;
 import org.bukkit.event.entity.EntityDamageByEntityEvent;
 import org.bukkit.event.entity.EntityDamageEvent;
 import org.bukkit.event.entity.EntityDeathEvent;
+import org.bukkit.event.inventory.ClickType;
+import org.bukkit.event.inventory.InventoryAction;
 import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryDragEvent;
 import org.bukkit.event.player.PlayerFishEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerItemHeldEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.inventory.EquipmentSlot;
 import org.bukkit.inventory.PlayerInventory;
 
 public class EnchantListener implements Listener {
+    private static final Set<EquipmentSlot> ALL_EQUIPMENT_SLOTS = Collections.unmodifiableSet(EnumSet.of(
+        EquipmentSlot.HAND, EquipmentSlot.OFF_HAND, EquipmentSlot.HEAD,
+        EquipmentSlot.CHEST, EquipmentSlot.LEGS, EquipmentSlot.FEET));
+    private static final Set<EquipmentSlot> MAIN_HAND = Collections.unmodifiableSet(EnumSet.of(EquipmentSlot.HAND));
+
     private final EnchantService service;
 
     public EnchantListener(EnchantService service) {
@@ -25,7 +38,7 @@ public class EnchantListener implements Listener {
 
     @EventHandler
     public void onJoin(PlayerJoinEvent event) {
-        service.refreshPlayer(event.getPlayer());
+        service.requestFullRefresh(event.getPlayer());
     }
 
     @EventHandler
@@ -35,7 +48,7 @@ public class EnchantListener implements Listener {
 
     @EventHandler
     public void onItemHeld(PlayerItemHeldEvent event) {
-        service.refreshPlayer(event.getPlayer());
+        service.requestRefresh(event.getPlayer(), MAIN_HAND);
     }
 
     @EventHandler
@@ -43,10 +56,20 @@ public class EnchantListener implements Listener {
         if (!(event.getWhoClicked() instanceof Player player)) {
             return;
         }
-        if (!(event.getInventory() instanceof PlayerInventory)) {
-            return;
+        service.requestRefresh(player, affectedSlots(event, player));
+    }
+
+    @EventHandler
+    public void onInventoryDrag(InventoryDragEvent event) {
+        if (event.getWhoClicked() instanceof Player player) {
+            service.requestRefresh(player, ALL_EQUIPMENT_SLOTS);
         }
-        service.refreshPlayer(player);
+    }
+
+    @EventHandler
+    public void onTickEnd(ServerTickEndEvent event) {
+        service.drainRefreshQueue();
+        service.drainTriggerResults();
     }
 
     @EventHandler
@@ -86,4 +109,28 @@ public class EnchantListener implements Listener {
             service.handleHit(killer, event.getEntity());
         }
     }
+
+    private Set<EquipmentSlot> affectedSlots(InventoryClickEvent event, Player player) {
+        if (event.isShiftClick()
+            || event.getClick() == ClickType.NUMBER_KEY
+            || event.getClick() == ClickType.SWAP_OFFHAND
+            || event.getAction() == InventoryAction.COLLECT_TO_CURSOR) {
+            return ALL_EQUIPMENT_SLOTS;
+        }
+        if (!(event.getClickedInventory() instanceof PlayerInventory)) {
+            return Collections.emptySet();
+        }
+        int slot = event.getSlot();
+        if (slot == player.getInventory().getHeldItemSlot()) {
+            return MAIN_HAND;
+        }
+        return switch (slot) {
+            case 36 -> EnumSet.of(EquipmentSlot.FEET);
+            case 37 -> EnumSet.of(EquipmentSlot.LEGS);
+            case 38 -> EnumSet.of(EquipmentSlot.CHEST);
+            case 39 -> EnumSet.of(EquipmentSlot.HEAD);
+            case 40 -> EnumSet.of(EquipmentSlot.OFF_HAND);
+            default -> Collections.emptySet();
+        };
+    }
 }
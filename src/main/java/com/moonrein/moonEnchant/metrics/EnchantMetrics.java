@@ -0,0 +1,181 @@
+package com.moonrein.moonEnchant.metrics;
+
+import com.moonrein.moonEnchant.enchant.EnchantRegistry;
+import com.moonrein.moonEnchant.model.EnchantTrigger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hot-path counters and latency histograms. Every record call is an uncontended striped add, so
+ * they stay on permanently; readers such as {@code /ce stats} and the Prometheus exporter sum them
+ * on demand from any thread.
+ */
+public class EnchantMetrics {
+    private final LongAdder[] triggerEvents = adders(EnchantTrigger.values().length);
+    private final LongAdder cooldownRejections = new LongAdder();
+    private final LongAdder chanceRejections = new LongAdder();
+    private final LongAdder rateLimited = new LongAdder();
+    private final LongAdder afkSkipped = new LongAdder();
+    private final LongAdder suppressedEffects = new LongAdder();
+    private final LogHistogram triggerLatency = new LogHistogram();
+    private final LogHistogram handoffLatency = new LogHistogram();
+    private final LogHistogram refreshDuration = new LogHistogram();
+    private final LogHistogram passiveTickDuration = new LogHistogram();
+    private final EnchantProfiler profiler = new EnchantProfiler();
+    private volatile ProcCounts procCounts = new ProcCounts(-1, 0, 0);
+
+    public void recordTriggerEvent(EnchantTrigger trigger) {
+        triggerEvents[trigger.ordinal()].increment();
+    }
+
+    public void recordTriggerEvents(EnchantTrigger trigger, int count) {
+        triggerEvents[trigger.ordinal()].add(count);
+    }
+
+    public void recordCooldownRejection() {
+        cooldownRejections.increment();
+    }
+
+    public void recordChanceRejection() {
+        chanceRejections.increment();
+    }
+
+    public void recordRateLimited() {
+        rateLimited.increment();
+    }
+
+    public void recordAfkSkipped() {
+        afkSkipped.increment();
+    }
+
+    public void recordSuppressedEffect() {
+        suppressedEffects.increment();
+    }
+
+    /**
+     * Counts an applied effect. Counts are keyed by registry ordinal and effect slot, so they start
+     * over whenever a proc arrives under a newer registry version. Main thread only.
+     */
+    public void recordProc(EnchantRegistry.Snapshot registry, int ordinal, int effectSlot) {
+        ProcCounts counts = procCounts;
+        if (counts.registryVersion != registry.getVersion()) {
+            counts = new ProcCounts(registry.getVersion(), registry.size(),
+                registry.getDispatchTable().getEffectSlotCount());
+            procCounts = counts;
+        }
+        counts.byEnchant.incrementAndGet(ordinal);
+        counts.byEffectSlot.incrementAndGet(effectSlot);
+    }
+
+    public long getTriggerEvents(EnchantTrigger trigger) {
+        return triggerEvents[trigger.ordinal()].sum();
+    }
+
+    /**
+     * Effects skipped because they were still on cooldown.
+     */
+    public long getCooldownRejections() {
+        return cooldownRejections.sum();
+    }
+
+    /**
+     * Effects skipped because their chance roll failed.
+     */
+    public long getChanceRejections() {
+        return chanceRejections.sum();
+    }
+
+    /**
+     * Triggers and effect applications skipped because the player or global proc limit was exhausted.
+     */
+    public long getRateLimited() {
+        return rateLimited.sum();
+    }
+
+    /**
+     * Trigger evaluations skipped because the player was idle for longer than the anti-AFK window.
+     */
+    public long getAfkSkipped() {
+        return afkSkipped.sum();
+    }
+
+    /**
+     * Potion effect applications merged into a stronger one in the same batch or skipped because
+     * the effect was still active.
+     */
+    public long getSuppressedEffects() {
+        return suppressedEffects.sum();
+    }
+
+    /**
+     * Nanoseconds from a trigger being raised to its result being applied, including time spent
+     * in the executor and apply queues.
+     */
+    public LogHistogram getTriggerLatency() {
+        return triggerLatency;
+    }
+
+    /**
+     * Nanoseconds a worker result waited for the main thread, from evaluation to application.
+     */
+    public LogHistogram getHandoffLatency() {
+        return handoffLatency;
+    }
+
+    /**
+     * Nanoseconds per drained equipment refresh, full or partial.
+     */
+    public LogHistogram getRefreshDuration() {
+        return refreshDuration;
+    }
+
+    /**
+     * Main-thread nanoseconds per passive tick, covering bucket selection and snapshotting.
+     */
+    public LogHistogram getPassiveTickDuration() {
+        return passiveTickDuration;
+    }
+
+    public ProcCounts getProcCounts() {
+        return procCounts;
+    }
+
+    public EnchantProfiler getProfiler() {
+        return profiler;
+    }
+
+    private static LongAdder[] adders(int count) {
+        LongAdder[] adders = new LongAdder[count];
+        for (int i = 0; i < count; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    /**
+     * Applied effects per enchant ordinal and effect slot for one registry version.
+     */
+    public static final class ProcCounts {
+        private final int registryVersion;
+        private final AtomicLongArray byEnchant;
+        private final AtomicLongArray byEffectSlot;
+
+        private ProcCounts(int registryVersion, int enchantCount, int effectSlotCount) {
+            this.registryVersion = registryVersion;
+            this.byEnchant = new AtomicLongArray(enchantCount);
+            this.byEffectSlot = new AtomicLongArray(effectSlotCount);
+        }
+
+        public int getRegistryVersion() {
+            return registryVersion;
+        }
+
+        public long forEnchant(int ordinal) {
+            return ordinal < byEnchant.length() ? byEnchant.get(ordinal) : 0L;
+        }
+
+        public long forEffectSlot(int effectSlot) {
+            return effectSlot < byEffectSlot.length() ? byEffectSlot.get(effectSlot) : 0L;
+        }
+    }
+}
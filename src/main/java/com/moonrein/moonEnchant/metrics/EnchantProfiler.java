@@ -0,0 +1,160 @@
+package com.moonrein.moonEnchant.metrics;
+
+import com.moonrein.moonEnchant.enchant.EnchantRegistry;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Opt-in profiler that attributes trigger evaluation and application time to effect slots, and
+ * so to enchants and effects. While no session runs, {@link #sample(int)} is one volatile read.
+ * While one runs, only one in {@code sampleEvery} evaluations or applications is timed, and the
+ * report scales the samples back up.
+ */
+public class EnchantProfiler {
+    private volatile Session session;
+
+    /**
+     * @return false if a session is already running
+     */
+    public synchronized boolean start(EnchantRegistry.Snapshot registry, int sampleEvery,
+                                      EnchantMetrics.ProcCounts procs) {
+        if (session != null) {
+            return false;
+        }
+        session = new Session(registry, Math.max(1, sampleEvery), procs);
+        return true;
+    }
+
+    /**
+     * @return the stopped session, or {@code null} if none was running
+     */
+    public synchronized Session stop() {
+        Session stopped = session;
+        session = null;
+        return stopped;
+    }
+
+    public boolean isRunning() {
+        return session != null;
+    }
+
+    /**
+     * Returns the running session if this call should be timed, or {@code null}. Work done under a
+     * different registry version than the session's is never sampled.
+     */
+    public Session sample(int registryVersion) {
+        Session current = session;
+        if (current == null || current.registry.getVersion() != registryVersion) {
+            return null;
+        }
+        if (current.sampleEvery > 1 && ThreadLocalRandom.current().nextInt(current.sampleEvery) != 0) {
+            return null;
+        }
+        return current;
+    }
+
+    /**
+     * Sampled timings of one profiling run, per effect slot of the registry version it started on.
+     */
+    public static final class Session {
+        private final EnchantRegistry.Snapshot registry;
+        private final int sampleEvery;
+        private final long startedAtMillis = System.currentTimeMillis();
+        private final long startedAtNanos = System.nanoTime();
+        private final long[] procsAtStart;
+        private final AtomicLongArray evaluateNanos;
+        private final AtomicLongArray evaluateCalls;
+        private final AtomicLongArray applyNanos;
+        private final AtomicLongArray applyCalls;
+
+        private Session(EnchantRegistry.Snapshot registry, int sampleEvery, EnchantMetrics.ProcCounts procs) {
+            this.registry = registry;
+            this.sampleEvery = sampleEvery;
+            int slots = registry.getDispatchTable().getEffectSlotCount();
+            this.procsAtStart = procCounts(procs, registry.getVersion(), slots);
+            this.evaluateNanos = new AtomicLongArray(slots);
+            this.evaluateCalls = new AtomicLongArray(slots);
+            this.applyNanos = new AtomicLongArray(slots);
+            this.applyCalls = new AtomicLongArray(slots);
+        }
+
+        public void recordEvaluate(int effectSlot, long nanos) {
+            evaluateNanos.addAndGet(effectSlot, nanos);
+            evaluateCalls.incrementAndGet(effectSlot);
+        }
+
+        public void recordApply(int effectSlot, long nanos) {
+            applyNanos.addAndGet(effectSlot, nanos);
+            applyCalls.incrementAndGet(effectSlot);
+        }
+
+        /**
+         * Adds time spent sending an effect to its slot's apply time without counting another call.
+         */
+        public void recordSend(int effectSlot, long nanos) {
+            applyNanos.addAndGet(effectSlot, nanos);
+        }
+
+        public EnchantRegistry.Snapshot getRegistry() {
+            return registry;
+        }
+
+        public int getSampleEvery() {
+            return sampleEvery;
+        }
+
+        public long getStartedAtMillis() {
+            return startedAtMillis;
+        }
+
+        public long getStartedAtNanos() {
+            return startedAtNanos;
+        }
+
+        /**
+         * Estimated totals: sampled values multiplied by the sampling interval.
+         */
+        public long getEvaluateNanos(int effectSlot) {
+            return evaluateNanos.get(effectSlot) * sampleEvery;
+        }
+
+        public long getEvaluateCalls(int effectSlot) {
+            return evaluateCalls.get(effectSlot) * sampleEvery;
+        }
+
+        public long getApplyNanos(int effectSlot) {
+            return applyNanos.get(effectSlot) * sampleEvery;
+        }
+
+        public long getApplyCalls(int effectSlot) {
+            return applyCalls.get(effectSlot) * sampleEvery;
+        }
+
+        /**
+         * Exact procs per effect slot since the session started, or {@code null} if the registry
+         * was reloaded in the meantime.
+         */
+        public long[] procsSince(EnchantMetrics.ProcCounts procs) {
+            if (procs.getRegistryVersion() > registry.getVersion()) {
+                return null;
+            }
+            int slots = procsAtStart.length;
+            long[] now = procCounts(procs, registry.getVersion(), slots);
+            long[] since = new long[slots];
+            for (int i = 0; i < slots; i++) {
+                since[i] = now[i] - procsAtStart[i];
+            }
+            return since;
+        }
+
+        private static long[] procCounts(EnchantMetrics.ProcCounts procs, int registryVersion, int slots) {
+            long[] counts = new long[slots];
+            if (procs.getRegistryVersion() == registryVersion) {
+                for (int i = 0; i < slots; i++) {
+                    counts[i] = procs.forEffectSlot(i);
+                }
+            }
+            return counts;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.moonrein.moonEnchant.metrics;
+
+import com.moonrein.moonEnchant.enchant.EnchantRegistry;
+import com.moonrein.moonEnchant.model.EffectSpec;
+import com.moonrein.moonEnchant.model.EnchantDefinition;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Plain-text report of a profiling session: enchants sorted by estimated time, each followed by its
+ * effects, with evaluation and apply time, calls, time per call and proc rate.
+ */
+public final class ProfileReport {
+    private static final String ROW = "%-36s %10s %7s %10s %10s %11s %9s %9s %8s%n";
+
+    private ProfileReport() {
+    }
+
+    public static String render(EnchantProfiler.Session session, EnchantMetrics.ProcCounts procCounts,
+                                int currentRegistryVersion, long stoppedAtNanos) {
+        EnchantRegistry.Snapshot registry = session.getRegistry();
+        double seconds = Math.max(1L, stoppedAtNanos - session.getStartedAtNanos()) / 1_000_000_000.0;
+        long[] procs = session.procsSince(procCounts);
+        List<Row> enchants = new ArrayList<>();
+        long totalEvaluate = 0;
+        long totalApply = 0;
+        for (int ordinal = 0; ordinal < registry.size(); ordinal++) {
+            EnchantDefinition definition = registry.getByOrdinal(ordinal);
+            List<EffectSpec> effects = definition.getEffects();
+            int base = registry.getDispatchTable().getEffectSlotBase(ordinal);
+            Row enchant = new Row(definition.getId(), new ArrayList<>());
+            for (int e = 0; e < effects.size(); e++) {
+                int slot = base + e;
+                Row effect = new Row("  " + effects.get(e).getKey(), List.of());
+                effect.evaluateNanos = session.getEvaluateNanos(slot);
+                effect.applyNanos = session.getApplyNanos(slot);
+                effect.calls = session.getEvaluateCalls(slot);
+                effect.procs = procs != null ? procs[slot] : 0L;
+                enchant.add(effect);
+            }
+            if (enchant.calls > 0 || enchant.procs > 0 || enchant.total() > 0) {
+                enchant.effects.sort(Comparator.comparingLong(Row::total).reversed());
+                enchants.add(enchant);
+                totalEvaluate += enchant.evaluateNanos;
+                totalApply += enchant.applyNanos;
+            }
+        }
+        enchants.sort(Comparator.comparingLong(Row::total).reversed());
+
+        long total = totalEvaluate + totalApply;
+        StringBuilder out = new StringBuilder();
+        out.append("MoonEnchant enchant profile\n");
+        out.append(String.format(Locale.ROOT, "Started %s, ran %.1f s, sampled 1 in %d; times and calls are "
+                + "estimates, procs are exact.%n",
+            new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.ROOT).format(new Date(session.getStartedAtMillis())),
+            seconds, session.getSampleEvery()));
+        out.append(String.format(Locale.ROOT, "Attributed time: %.2f ms (evaluate %.2f ms, apply %.2f ms), "
+                + "%.3f ms per second.%n",
+            millis(total), millis(totalEvaluate), millis(totalApply), millis(total) / seconds));
+        if (currentRegistryVersion != registry.getVersion()) {
+            out.append("Configs were reloaded during the session; work after the reload is not included.\n");
+        }
+        out.append('\n');
+        out.append(String.format(Locale.ROOT, ROW, "enchant / effect", "total ms", "share", "eval ms", "apply ms",
+            "calls", "us/call", "procs", "procs/s"));
+        for (Row enchant : enchants) {
+            enchant.append(out, total, seconds);
+            for (Row effect : enchant.effects) {
+                effect.append(out, total, seconds);
+            }
+        }
+        if (enchants.isEmpty()) {
+            out.append("No enchant work was sampled.\n");
+        }
+        return out.toString();
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static final class Row {
+        private final String name;
+        private final List<Row> effects;
+        private long evaluateNanos;
+        private long applyNanos;
+        private long calls;
+        private long procs;
+
+        private Row(String name, List<Row> effects) {
+            this.name = name;
+            this.effects = effects;
+        }
+
+        private void add(Row effect) {
+            effects.add(effect);
+            evaluateNanos += effect.evaluateNanos;
+            applyNanos += effect.applyNanos;
+            calls += effect.calls;
+            procs += effect.procs;
+        }
+
+        private long total() {
+            return evaluateNanos + applyNanos;
+        }
+
+        private void append(StringBuilder out, long grandTotal, double seconds) {
+            out.append(String.format(Locale.ROOT, ROW, name,
+                String.format(Locale.ROOT, "%.2f", millis(total())),
+                String.format(Locale.ROOT, "%.1f%%", grandTotal == 0 ? 0.0 : total() * 100.0 / grandTotal),
+                String.format(Locale.ROOT, "%.2f", millis(evaluateNanos)),
+                String.format(Locale.ROOT, "%.2f", millis(applyNanos)),
+                Long.toString(calls),
+                calls == 0 ? "-" : String.format(Locale.ROOT, "%.2f", total() / 1_000.0 / calls),
+                Long.toString(procs),
+                String.format(Locale.ROOT, "%.2f", procs / seconds)));
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.moonrein.moonEnchant.metrics;
+
+import com.moonrein.moonEnchant.enchant.EnchantRegistry;
+import com.moonrein.moonEnchant.enchant.TriggerDispatchTable;
+import com.moonrein.moonEnchant.model.EffectSpec;
+import com.moonrein.moonEnchant.model.EnchantDefinition;
+import com.moonrein.moonEnchant.model.EnchantTrigger;
+import com.moonrein.moonEnchant.service.EnchantExecutor;
+import com.moonrein.moonEnchant.service.EnchantService;
+import com.moonrein.moonEnchant.util.DecodedEnchantCache;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Writes every metric in the Prometheus text format to a file, for node_exporter's textfile
+ * collector or any scraper that reads files. Only reads thread-safe counters and immutable registry
+ * snapshots, so it runs on an async task. The file is replaced atomically, so a scrape never sees
+ * a partial write.
+ */
+public class PrometheusExporter {
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99};
+
+    private final EnchantService service;
+    private final EnchantRegistry registry;
+    private final Path file;
+
+    public PrometheusExporter(EnchantService service, EnchantRegistry registry, File file) {
+        this.service = service;
+        this.registry = registry;
+        this.file = file.toPath();
+    }
+
+    public void write() throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.writeString(temp, render(), StandardCharsets.UTF_8);
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public String render() {
+        EnchantMetrics metrics = service.getMetrics();
+        StringBuilder out = new StringBuilder(4096);
+
+        header(out, "moonenchant_trigger_events_total", "counter", "Trigger events raised, by trigger.");
+        for (EnchantTrigger trigger : EnchantTrigger.values()) {
+            sample(out, "moonenchant_trigger_events_total", label("trigger", trigger.name()),
+                metrics.getTriggerEvents(trigger));
+        }
+
+        header(out, "moonenchant_rejections_total", "counter", "Effects or triggers skipped, by reason.");
+        sample(out, "moonenchant_rejections_total", label("reason", "cooldown"), metrics.getCooldownRejections());
+        sample(out, "moonenchant_rejections_total", label("reason", "chance"), metrics.getChanceRejections());
+        sample(out, "moonenchant_rejections_total", label("reason", "rate_limited"), metrics.getRateLimited());
+        sample(out, "moonenchant_rejections_total", label("reason", "afk"), metrics.getAfkSkipped());
+
+        header(out, "moonenchant_suppressed_effects_total", "counter",
+            "Potion effects merged in a batch or skipped because a stronger one was active.");
+        sample(out, "moonenchant_suppressed_effects_total", "", metrics.getSuppressedEffects());
+
+        renderProcs(out, metrics.getProcCounts());
+
+        EnchantExecutor.Stats executor = service.getExecutorStats();
+        header(out, "moonenchant_executor_queue_depth", "gauge", "Tasks waiting for an enchant worker.");
+        sample(out, "moonenchant_executor_queue_depth", "", executor.queueDepth());
+        header(out, "moonenchant_executor_completed_total", "counter", "Tasks run by enchant workers.");
+        sample(out, "moonenchant_executor_completed_total", "", executor.completed());
+        header(out, "moonenchant_executor_shed_total", "counter", "Tasks dropped or merged by the overflow policy.");
+        sample(out, "moonenchant_executor_shed_total", "", executor.shed());
+        header(out, "moonenchant_apply_queue_depth", "gauge", "Worker results waiting for the main thread.");
+        sample(out, "moonenchant_apply_queue_depth", "", service.getApplyQueueDepth());
+        header(out, "moonenchant_apply_queue_dropped_total", "counter", "Worker results dropped on overflow.");
+        sample(out, "moonenchant_apply_queue_dropped_total", "", service.getApplyQueueDropped());
+        header(out, "moonenchant_apply_queue_merged_total", "counter",
+            "Worker results merged into a pending result on overflow.");
+        sample(out, "moonenchant_apply_queue_merged_total", "", service.getApplyQueueMerged());
+
+        DecodedEnchantCache.Stats cache = service.getItemCacheStats();
+        header(out, "moonenchant_item_cache_requests_total", "counter", "Decoded item cache lookups, by result.");
+        sample(out, "moonenchant_item_cache_requests_total", label("result", "hit"), cache.hits());
+        sample(out, "moonenchant_item_cache_requests_total", label("result", "miss"), cache.misses());
+        header(out, "moonenchant_item_cache_evictions_total", "counter",
+            "Decoded items evicted to stay within the cache size.");
+        sample(out, "moonenchant_item_cache_evictions_total", "", cache.evictions());
+        header(out, "moonenchant_item_cache_entries", "gauge", "Decoded items currently cached.");
+        sample(out, "moonenchant_item_cache_entries", "", cache.size());
+
+        summary(out, "moonenchant_trigger_latency_seconds",
+            "Time from a trigger being raised to its effects being applied.", metrics.getTriggerLatency());
+        summary(out, "moonenchant_handoff_latency_seconds",
+            "Time a worker result waited for the main thread.", metrics.getHandoffLatency());
+        summary(out, "moonenchant_refresh_duration_seconds",
+            "Main-thread time per equipment refresh.", metrics.getRefreshDuration());
+        summary(out, "moonenchant_passive_tick_duration_seconds",
+            "Main-thread time per passive tick.", metrics.getPassiveTickDuration());
+        return out.toString();
+    }
+
+    /**
+     * Writes both proc families, each as one contiguous block under its own header as the text
+     * format requires.
+     */
+    private void renderProcs(StringBuilder out, EnchantMetrics.ProcCounts procs) {
+        EnchantRegistry.Snapshot snapshot = registry.getSnapshot();
+        // Counts from an older registry are skipped; ordinals no longer map to the same enchants.
+        boolean current = procs.getRegistryVersion() == snapshot.getVersion();
+        header(out, "moonenchant_procs_total", "counter", "Applied effects, by enchant.");
+        for (int ordinal = 0; current && ordinal < snapshot.size(); ordinal++) {
+            sample(out, "moonenchant_procs_total", label("enchant", snapshot.getByOrdinal(ordinal).getId()),
+                procs.forEnchant(ordinal));
+        }
+        header(out, "moonenchant_effect_procs_total", "counter", "Applied effects, by enchant and effect.");
+        TriggerDispatchTable dispatchTable = snapshot.getDispatchTable();
+        for (int ordinal = 0; current && ordinal < snapshot.size(); ordinal++) {
+            EnchantDefinition definition = snapshot.getByOrdinal(ordinal);
+            String enchant = label("enchant", definition.getId());
+            List<EffectSpec> effects = definition.getEffects();
+            int base = dispatchTable.getEffectSlotBase(ordinal);
+            for (int e = 0; e < effects.size(); e++) {
+                sample(out, "moonenchant_effect_procs_total",
+                    enchant + "," + label("effect", effects.get(e).getKey()), procs.forEffectSlot(base + e));
+            }
+        }
+    }
+
+    private static void summary(StringBuilder out, String name, String help, LogHistogram histogram) {
+        header(out, name, "summary", help);
+        for (double quantile : QUANTILES) {
+            sample(out, name, label("quantile", Double.toString(quantile)), seconds(histogram.percentile(quantile)));
+        }
+        sample(out, name + "_sum", "", seconds(histogram.sum()));
+        sample(out, name + "_count", "", histogram.count());
+    }
+
+    private static void header(StringBuilder out, String name, String type, String help) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(StringBuilder out, String name, String labels, long value) {
+        appendName(out, name, labels).append(value).append('\n');
+    }
+
+    private static void sample(StringBuilder out, String name, String labels, double value) {
+        appendName(out, name, labels).append(String.format(Locale.ROOT, "%.9f", value)).append('\n');
+    }
+
+    private static StringBuilder appendName(StringBuilder out, String name, String labels) {
+        out.append(name);
+        if (!labels.isEmpty()) {
+            out.append('{').append(labels).append('}');
+        }
+        return out.append(' ');
+    }
+
+    private static String label(String name, String value) {
+        String escaped = value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+        return name + "=\"" + escaped + "\"";
+    }
+
+    private static double seconds(long nanos) {
+        return nanos / 1_000_000_000.0;
+    }
+}
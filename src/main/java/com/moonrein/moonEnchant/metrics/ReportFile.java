@@ -0,0 +1,37 @@
+package com.moonrein.moonEnchant.metrics;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+
+/**
+ * Timestamped plain-text report files, such as profiles and trace dumps, written under the plugin
+ * data folder.
+ */
+public final class ReportFile {
+    private ReportFile() {
+    }
+
+    /**
+     * Returns {@code <prefix>-yyyyMMdd-HHmmss.txt} for the given wall-clock time.
+     */
+    public static String fileName(String prefix, long timeMillis) {
+        return prefix + "-" + new SimpleDateFormat("yyyyMMdd-HHmmss", Locale.ROOT).format(new Date(timeMillis))
+            + ".txt";
+    }
+
+    public static void write(File file, String report) throws IOException {
+        Files.createDirectories(file.getParentFile().toPath());
+        Files.writeString(file.toPath(), report, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @param error the write failure, or {@code null} if the report was written to {@code file}
+     */
+    public record Result(File file, IOException error) {
+    }
+}
@@ -0,0 +1,155 @@
+package com.moonrein.moonEnchant.metrics;
+
+import com.moonrein.moonEnchant.model.EnchantTrigger;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size ring of trigger outcomes shared by all players, kept in parallel primitive arrays so
+ * recording never allocates. Writers on any thread claim a slot from one sequence counter; once the
+ * ring is full the oldest events are overwritten. Readers copy events out and skip any slot that is
+ * overwritten while they read it.
+ */
+public class TraceBuffer {
+    private static final EnchantTrigger[] TRIGGERS = EnchantTrigger.values();
+    private static final Outcome[] OUTCOMES = Outcome.values();
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicLong next = new AtomicLong();
+    // Sequence + 1 of the event a slot holds; 0 while empty or being written.
+    private final AtomicLongArray committed;
+    private final long[] playerMost;
+    private final long[] playerLeast;
+    private final long[] ticks;
+    private final int[] registryVersions;
+    private final int[] ordinals;
+    private final int[] effectIndexes;
+    private final byte[] triggers;
+    private final byte[] outcomes;
+    private final double[] rolls;
+    private final double[] chances;
+    private final double[] heatFactors;
+
+    /**
+     * @param capacity events kept, rounded up to a power of two, or 0 to disable tracing
+     */
+    public TraceBuffer(int capacity) {
+        this.capacity = capacity <= 0 ? 0 : Integer.highestOneBit(Math.max(15, capacity - 1) << 1);
+        this.mask = this.capacity - 1;
+        this.committed = new AtomicLongArray(this.capacity);
+        this.playerMost = new long[this.capacity];
+        this.playerLeast = new long[this.capacity];
+        this.ticks = new long[this.capacity];
+        this.registryVersions = new int[this.capacity];
+        this.ordinals = new int[this.capacity];
+        this.effectIndexes = new int[this.capacity];
+        this.triggers = new byte[this.capacity];
+        this.outcomes = new byte[this.capacity];
+        this.rolls = new double[this.capacity];
+        this.chances = new double[this.capacity];
+        this.heatFactors = new double[this.capacity];
+    }
+
+    public boolean isEnabled() {
+        return capacity > 0;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Records one outcome. Trigger-level outcomes use -1 for the ordinal and effect index, and NaN
+     * for values that were never computed. Safe to call from any thread.
+     */
+    public void record(UUID playerId, long tick, EnchantTrigger trigger, int registryVersion, int ordinal,
+                       int effectIndex, Outcome outcome, double roll, double chance, double heatFactor) {
+        if (capacity == 0) {
+            return;
+        }
+        long sequence = next.getAndIncrement();
+        int slot = (int) (sequence & mask);
+        committed.set(slot, 0L);
+        VarHandle.storeStoreFence();
+        playerMost[slot] = playerId.getMostSignificantBits();
+        playerLeast[slot] = playerId.getLeastSignificantBits();
+        ticks[slot] = tick;
+        registryVersions[slot] = registryVersion;
+        ordinals[slot] = ordinal;
+        effectIndexes[slot] = effectIndex;
+        triggers[slot] = (byte) trigger.ordinal();
+        outcomes[slot] = (byte) outcome.ordinal();
+        rolls[slot] = roll;
+        chances[slot] = chance;
+        heatFactors[slot] = heatFactor;
+        committed.set(slot, sequence + 1);
+    }
+
+    /**
+     * Copies up to {@code limit} of the most recent events, newest first.
+     *
+     * @param playerId only events of this player, or {@code null} for all players
+     */
+    public List<Event> recent(UUID playerId, int limit) {
+        List<Event> events = new ArrayList<>();
+        long end = next.get();
+        long start = Math.max(0L, end - capacity);
+        for (long sequence = end - 1; sequence >= start && events.size() < limit; sequence--) {
+            int slot = (int) (sequence & mask);
+            if (committed.get(slot) != sequence + 1) {
+                continue;
+            }
+            long most = playerMost[slot];
+            long least = playerLeast[slot];
+            Event event = new Event(sequence, new UUID(most, least), ticks[slot], TRIGGERS[triggers[slot]],
+                registryVersions[slot], ordinals[slot], effectIndexes[slot], OUTCOMES[outcomes[slot]], rolls[slot],
+                chances[slot], heatFactors[slot]);
+            VarHandle.loadLoadFence();
+            if (committed.get(slot) != sequence + 1) {
+                // Overwritten while copying.
+                continue;
+            }
+            if (playerId == null || (playerId.getMostSignificantBits() == most
+                && playerId.getLeastSignificantBits() == least)) {
+                events.add(event);
+            }
+        }
+        return events;
+    }
+
+    public enum Outcome {
+        /** The effect was still on cooldown. */
+        COOLDOWN,
+        /** The chance roll failed. */
+        CHANCE,
+        /** The effect fired. */
+        APPLIED,
+        /** The player or global proc limit was exhausted. */
+        RATE_LIMITED,
+        /** The effect targets an entity that was gone by the time it applied. */
+        NO_TARGET,
+        /** The whole trigger was skipped because the player was idle. */
+        AFK,
+        /** The recipient already had the same or a stronger effect, from this batch or before it. */
+        SUPPRESSED
+    }
+
+    /**
+     * A copied trace event.
+     *
+     * @param ordinal     registry ordinal under {@code registryVersion}, or -1 for trigger-level outcomes
+     * @param effectIndex index into the enchant's effects, or -1 for trigger-level outcomes
+     * @param roll        the random roll compared against {@code chance}, or NaN if none was made
+     * @param chance      the chance after heat scaling, or the base chance if no roll was made
+     * @param heatFactor  the heat multiplier applied to the chance, or NaN if none was computed
+     */
+    public record Event(long sequence, UUID playerId, long tick, EnchantTrigger trigger, int registryVersion,
+                        int ordinal, int effectIndex, Outcome outcome, double roll, double chance,
+                        double heatFactor) {
+    }
+}
@@ -0,0 +1,74 @@
+package com.moonrein.moonEnchant.metrics;
+
+import com.moonrein.moonEnchant.enchant.EnchantRegistry;
+import com.moonrein.moonEnchant.model.EffectSpec;
+import com.moonrein.moonEnchant.model.EnchantDefinition;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Formats {@link TraceBuffer} events, resolving ordinals to enchant and effect keys when the event
+ * was recorded under the current registry version.
+ */
+public final class TraceReport {
+    private TraceReport() {
+    }
+
+    /**
+     * One line without the player or time, such as
+     * {@code ON_HIT lifesteal/heal CHANCE roll=0.412 chance=0.250 heat=0.83}.
+     */
+    public static String describe(TraceBuffer.Event event, EnchantRegistry.Snapshot registry) {
+        StringBuilder out = new StringBuilder(96);
+        out.append(event.trigger()).append(' ');
+        if (event.ordinal() >= 0) {
+            out.append(effectName(event, registry)).append(' ');
+        }
+        out.append(event.outcome());
+        appendValue(out, "roll", event.roll(), "%.3f");
+        appendValue(out, "chance", event.chance(), "%.3f");
+        appendValue(out, "heat", event.heatFactor(), "%.2f");
+        return out.toString();
+    }
+
+    /**
+     * Full dump, oldest event first, one line per event with its tick and player.
+     *
+     * @param events events as returned by {@link TraceBuffer#recent}, newest first
+     */
+    public static String render(List<TraceBuffer.Event> events, EnchantRegistry.Snapshot registry,
+                                long currentTick, int capacity) {
+        StringBuilder out = new StringBuilder(64 + events.size() * 128);
+        out.append("MoonEnchant trace dump\n");
+        out.append(String.format(Locale.ROOT, "Written %s at tick %d; %d events from a %d-event buffer.%n%n",
+            new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.ROOT).format(new Date()), currentTick,
+            events.size(), capacity));
+        for (int i = events.size() - 1; i >= 0; i--) {
+            TraceBuffer.Event event = events.get(i);
+            out.append(event.tick()).append(' ').append(event.playerId()).append(' ')
+                .append(describe(event, registry)).append('\n');
+        }
+        return out.toString();
+    }
+
+    private static String effectName(TraceBuffer.Event event, EnchantRegistry.Snapshot registry) {
+        if (event.registryVersion() != registry.getVersion() || event.ordinal() >= registry.size()) {
+            // Recorded before a reload; the ordinal may now name a different enchant.
+            return "#" + event.ordinal() + "/#" + event.effectIndex() + "@v" + event.registryVersion();
+        }
+        EnchantDefinition definition = registry.getByOrdinal(event.ordinal());
+        List<EffectSpec> effects = definition.getEffects();
+        String effect = event.effectIndex() >= 0 && event.effectIndex() < effects.size()
+            ? effects.get(event.effectIndex()).getKey()
+            : "#" + event.effectIndex();
+        return definition.getId() + "/" + effect;
+    }
+
+    private static void appendValue(StringBuilder out, String name, double value, String format) {
+        if (!Double.isNaN(value)) {
+            out.append(' ').append(name).append('=').append(String.format(Locale.ROOT, format, value));
+        }
+    }
+}
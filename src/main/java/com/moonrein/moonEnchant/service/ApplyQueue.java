@@ -0,0 +1,125 @@
+package com.moonrein.moonEnchant.service;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Bounded lock-free hand-off from worker threads to the main thread. Workers offer completed
+ * results from any thread; a single main-thread task drains the queue once per tick.
+ * <p>
+ * Under {@link OverflowPolicy#MERGE} nothing is dropped once the queue is full: each overflowing
+ * element is folded into a pending overflow element with the same key, so the
+ * overflow holds at most one element per key and is drained after the queued elements.
+ */
+public class ApplyQueue<T> {
+    private final Queue<T> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final Map<Object, T> overflow = new ConcurrentHashMap<>();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder merged = new LongAdder();
+    private final int maxSize;
+    private final OverflowPolicy policy;
+    private final Function<T, Object> mergeKey;
+    private final BinaryOperator<T> merger;
+
+    public ApplyQueue(int maxSize, OverflowPolicy policy) {
+        this(maxSize, policy, null, null);
+    }
+
+    /**
+     * @param mergeKey elements with equal keys can be merged; required by {@link OverflowPolicy#MERGE}
+     * @param merger   combines the pending element with a newer one; required by {@link OverflowPolicy#MERGE}
+     */
+    public ApplyQueue(int maxSize, OverflowPolicy policy, Function<T, Object> mergeKey, BinaryOperator<T> merger) {
+        if (policy == OverflowPolicy.MERGE && (mergeKey == null || merger == null)) {
+            throw new IllegalArgumentException("MERGE overflow policy requires a merge key and merger");
+        }
+        this.maxSize = Math.max(1, maxSize);
+        this.policy = policy;
+        this.mergeKey = mergeKey;
+        this.merger = merger;
+    }
+
+    /**
+     * @return false if the element was dropped because the queue is full
+     */
+    public boolean offer(T element) {
+        if (size.incrementAndGet() > maxSize) {
+            if (policy == OverflowPolicy.MERGE) {
+                size.decrementAndGet();
+                if (overflow.merge(mergeKey.apply(element), element, merger) != element) {
+                    merged.increment();
+                }
+                return true;
+            }
+            if (policy == OverflowPolicy.DROP_NEWEST) {
+                size.decrementAndGet();
+                dropped.increment();
+                return false;
+            }
+            if (queue.poll() != null) {
+                size.decrementAndGet();
+                dropped.increment();
+            }
+        }
+        queue.offer(element);
+        return true;
+    }
+
+    /**
+     * Drains the elements present when the call starts, so producers cannot keep the main thread
+     * busy indefinitely, followed by the merged overflow.
+     *
+     * @return the number of elements handed to the consumer
+     */
+    public int drain(Consumer<T> consumer) {
+        int limit = size.get();
+        int drained = 0;
+        while (drained < limit) {
+            T element = queue.poll();
+            if (element == null) {
+                break;
+            }
+            size.decrementAndGet();
+            drained++;
+            consumer.accept(element);
+        }
+        for (Object key : overflow.keySet()) {
+            T element = overflow.remove(key);
+            if (element != null) {
+                drained++;
+                consumer.accept(element);
+            }
+        }
+        return drained;
+    }
+
+    public int size() {
+        return size.get() + overflow.size();
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * Overflowing elements folded into a pending element instead of being queued separately.
+     */
+    public long getMerged() {
+        return merged.sum();
+    }
+
+    public enum OverflowPolicy {
+        DROP_OLDEST,
+        DROP_NEWEST,
+        /** Folds overflowing elements into one pending element per merge key. */
+        MERGE
+    }
+}
@@ -0,0 +1,112 @@
+package com.moonrein.moonEnchant.service;
+
+import com.moonrein.moonEnchant.enchant.EnchantRegistry;
+import java.util.Arrays;
+
+/**
+ * Active effect cooldowns of one player as parallel primitive arrays of cooldown slot and
+ * server-tick deadline. Cooldown slots come from
+ * {@link com.moonrein.moonEnchant.enchant.TriggerDispatchTable#getCooldownSlot(int)} and identify an
+ * (enchant ordinal, potion type) pair.
+ * <p>
+ * Immutable: every write returns a new table holding only the cooldowns still running, so a
+ * {@link PlayerSnapshot} shares the table by reference and the arrays copied per write stay as
+ * small as the handful of running cooldowns.
+ */
+public final class CooldownTable {
+    public static final CooldownTable EMPTY = new CooldownTable(new int[0], new long[0]);
+
+    private final int[] slots;
+    private final long[] deadlines;
+
+    private CooldownTable(int[] slots, long[] deadlines) {
+        this.slots = slots;
+        this.deadlines = deadlines;
+    }
+
+    public boolean isOnCooldown(int slot, long currentTick) {
+        return getRemainingTicks(slot, currentTick) > 0;
+    }
+
+    public long getRemainingTicks(int slot, long currentTick) {
+        for (int i = 0; i < slots.length; i++) {
+            if (slots[i] == slot) {
+                return Math.max(0L, deadlines[i] - currentTick);
+            }
+        }
+        return 0L;
+    }
+
+    /**
+     * Returns a table with {@code slot} on cooldown until {@code deadline}, dropping expired entries.
+     */
+    public CooldownTable with(int slot, long deadline, long currentTick) {
+        int kept = 0;
+        for (int i = 0; i < slots.length; i++) {
+            if (slots[i] != slot && deadlines[i] > currentTick) {
+                kept++;
+            }
+        }
+        int[] nextSlots = new int[kept + 1];
+        long[] nextDeadlines = new long[kept + 1];
+        int write = 0;
+        for (int i = 0; i < slots.length; i++) {
+            if (slots[i] != slot && deadlines[i] > currentTick) {
+                nextSlots[write] = slots[i];
+                nextDeadlines[write++] = deadlines[i];
+            }
+        }
+        nextSlots[write] = slot;
+        nextDeadlines[write] = deadline;
+        return new CooldownTable(nextSlots, nextDeadlines);
+    }
+
+    /**
+     * Moves running cooldowns to the cooldown slots of a new registry version, dropping expired ones
+     * and those whose enchant no longer applies the potion. Cooldowns merged into one slot keep the
+     * latest deadline.
+     */
+    public CooldownTable remap(EnchantRegistry.Remap remap, long currentTick) {
+        int[] nextSlots = new int[slots.length];
+        long[] nextDeadlines = new long[slots.length];
+        int size = 0;
+        for (int i = 0; i < slots.length; i++) {
+            int slot = remap.cooldownSlot(slots[i]);
+            if (slot < 0 || deadlines[i] <= currentTick) {
+                continue;
+            }
+            int existing = indexOf(nextSlots, size, slot);
+            if (existing >= 0) {
+                nextDeadlines[existing] = Math.max(nextDeadlines[existing], deadlines[i]);
+            } else {
+                nextSlots[size] = slot;
+                nextDeadlines[size++] = deadlines[i];
+            }
+        }
+        if (size == 0) {
+            return EMPTY;
+        }
+        return new CooldownTable(Arrays.copyOf(nextSlots, size), Arrays.copyOf(nextDeadlines, size));
+    }
+
+    public int size() {
+        return slots.length;
+    }
+
+    public int slot(int index) {
+        return slots[index];
+    }
+
+    public long deadline(int index) {
+        return deadlines[index];
+    }
+
+    private static int indexOf(int[] slots, int size, int slot) {
+        for (int i = 0; i < size; i++) {
+            if (slots[i] == slot) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
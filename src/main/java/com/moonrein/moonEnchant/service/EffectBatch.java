@@ -0,0 +1,69 @@
+package com.moonrein.moonEnchant.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+import org.bukkit.entity.LivingEntity;
+import org.bukkit.potion.PotionEffect;
+
+/**
+ * Potion effects collected from a whole batch of trigger results before any is sent. Each
+ * recipient keeps at most one effect per potion type: the higher amplifier, then the longer
+ * duration. Main thread only.
+ *
+ * @param <T> what produced an effect, so the caller can charge or trace it once the batch is sent
+ */
+public class EffectBatch<T> {
+    private final Map<UUID, List<Entry<T>>> byRecipient = new LinkedHashMap<>();
+
+    /**
+     * Adds an effect, merging it with a pending effect of the same type for the same recipient.
+     *
+     * @return the entry that lost the merge, which may be {@code entry} itself, or {@code null} if
+     * nothing was merged
+     */
+    public Entry<T> add(Entry<T> entry) {
+        List<Entry<T>> entries = byRecipient.computeIfAbsent(entry.recipient().getUniqueId(),
+            ignored -> new ArrayList<>(4));
+        PotionEffect effect = entry.effect();
+        for (int i = 0; i < entries.size(); i++) {
+            Entry<T> existing = entries.get(i);
+            if (!existing.effect().getType().equals(effect.getType())) {
+                continue;
+            }
+            if (effect.getAmplifier() > existing.effect().getAmplifier()
+                || (effect.getAmplifier() == existing.effect().getAmplifier()
+                && effect.getDuration() > existing.effect().getDuration())) {
+                entries.set(i, entry);
+                return existing;
+            }
+            return entry;
+        }
+        entries.add(entry);
+        return null;
+    }
+
+    /**
+     * Hands every surviving entry to {@code consumer}, grouped by recipient in the order the
+     * recipients were first seen.
+     */
+    public void forEach(Consumer<Entry<T>> consumer) {
+        for (List<Entry<T>> entries : byRecipient.values()) {
+            entries.forEach(consumer);
+        }
+    }
+
+    public boolean isEmpty() {
+        return byRecipient.isEmpty();
+    }
+
+    /**
+     * @param refreshThreshold the effect is not sent while the recipient already has the same or a
+     *                         stronger one with more than this many ticks left
+     */
+    public record Entry<T>(LivingEntity recipient, PotionEffect effect, int refreshThreshold, T source) {
+    }
+}
@@ -0,0 +1,283 @@
+package com.moonrein.moonEnchant.service;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs trigger evaluations off the main thread in one of the configured {@link Mode}s and keeps
+ * track of how many tasks are waiting and how long they wait and run.
+ * <p>
+ * Waiting tasks live in a bounded queue owned by this class; the delegate only receives one
+ * lightweight pump per queued task, which runs whatever task is next. When the queue is full the
+ * {@link OverflowPolicy} decides what is shed, so a burst can never build an unbounded backlog of
+ * evaluations that would apply seconds late.
+ */
+public class EnchantExecutor implements Executor {
+    private final Mode mode;
+    private final ExecutorService delegate;
+    private final int maxQueued;
+    private final OverflowPolicy policy;
+    private final Queue<Task> pending = new ConcurrentLinkedQueue<>();
+    private final Map<Object, Task> pendingByKey = new ConcurrentHashMap<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder shed = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final LongAdder totalRunNanos = new LongAdder();
+    private final LongAccumulator maxWaitNanos = new LongAccumulator(Math::max, 0L);
+    private volatile boolean shutdown;
+
+    public EnchantExecutor(Mode mode, int threads, int maxQueued, OverflowPolicy policy) {
+        this.mode = mode;
+        this.maxQueued = Math.max(1, maxQueued);
+        this.policy = policy;
+        this.delegate = switch (mode) {
+            case FIXED -> new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), new WorkerThreadFactory());
+            case VIRTUAL -> Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("moonEnchant-vworker-", 1).factory());
+            case DIRECT -> null;
+        };
+    }
+
+    /**
+     * Worker count for {@link Mode#FIXED} when none is configured: half the cores, at least two.
+     */
+    public static int defaultThreads() {
+        return Math.max(2, Runtime.getRuntime().availableProcessors() / 2);
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        execute(null, task, null);
+    }
+
+    public void execute(Object key, Runnable runnable) {
+        execute(key, runnable, null);
+    }
+
+    /**
+     * Submits a task. Under {@link OverflowPolicy#COALESCE}, a task whose key matches one that is
+     * still waiting replaces it instead of queueing behind it; a {@code null} key never coalesces.
+     *
+     * @param onShed run instead of the task if the task is shed, so callers can release state held
+     *               for it; runs on the thread whose submission caused the shed, or {@code null}
+     */
+    public void execute(Object key, Runnable runnable, Runnable onShed) {
+        long submittedAt = System.nanoTime();
+        if (delegate == null) {
+            run(runnable, submittedAt);
+            return;
+        }
+        if (shutdown) {
+            shed(onShed);
+            return;
+        }
+        Task task = new Task(key, runnable, onShed, submittedAt);
+        if (policy == OverflowPolicy.COALESCE && key != null) {
+            Runnable[] replaced = new Runnable[1];
+            Task merged = pendingByKey.compute(key, (ignored, current) -> {
+                if (current == null) {
+                    return task;
+                }
+                replaced[0] = current.onShed;
+                current.runnable = runnable;
+                current.onShed = onShed;
+                return current;
+            });
+            if (merged != task) {
+                shed(replaced[0]);
+                return;
+            }
+        }
+        if (queued.incrementAndGet() <= maxQueued) {
+            pending.offer(task);
+            delegate.execute(this::runNext);
+            return;
+        }
+        switch (policy) {
+            case DROP_OLDEST -> {
+                Task oldest = pending.poll();
+                if (oldest != null) {
+                    // The evicted task's pump runs the new one, so no extra pump is submitted.
+                    queued.decrementAndGet();
+                    forget(oldest);
+                    pending.offer(task);
+                    shed(oldest.onShed);
+                    return;
+                }
+                // Every counted task was already taken by a worker, so nothing can be evicted.
+                queued.decrementAndGet();
+                forget(task);
+                shed(onShed);
+            }
+            case CALLER_RUNS -> {
+                queued.decrementAndGet();
+                forget(task);
+                run(runnable, submittedAt);
+            }
+            case DROP_NEWEST, COALESCE -> {
+                queued.decrementAndGet();
+                forget(task);
+                shed(onShed);
+            }
+        }
+    }
+
+    private void shed(Runnable onShed) {
+        shed.increment();
+        if (onShed != null) {
+            onShed.run();
+        }
+    }
+
+    private void runNext() {
+        Task task = pending.poll();
+        if (task == null) {
+            return;
+        }
+        queued.decrementAndGet();
+        forget(task);
+        run(task.runnable, task.submittedAt);
+    }
+
+    private void forget(Task task) {
+        if (task.key != null) {
+            pendingByKey.remove(task.key, task);
+        }
+    }
+
+    private void run(Runnable task, long submittedAt) {
+        long startedAt = System.nanoTime();
+        long wait = startedAt - submittedAt;
+        totalWaitNanos.add(wait);
+        maxWaitNanos.accumulate(wait);
+        try {
+            task.run();
+        } finally {
+            totalRunNanos.add(System.nanoTime() - startedAt);
+            completed.increment();
+        }
+    }
+
+    /**
+     * Stops accepting work and waits up to {@code timeoutMillis} for queued and running tasks to
+     * finish before interrupting whatever is left.
+     *
+     * @return whether every task finished within the timeout
+     */
+    public boolean shutdown(long timeoutMillis) {
+        shutdown = true;
+        if (delegate == null) {
+            return true;
+        }
+        delegate.shutdown();
+        try {
+            if (delegate.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        delegate.shutdownNow();
+        return false;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public int getQueueDepth() {
+        return queued.get();
+    }
+
+    /**
+     * Tasks dropped or merged away by the overflow policy, plus tasks submitted after shutdown.
+     */
+    public long getShed() {
+        return shed.sum();
+    }
+
+    public Stats getStats() {
+        return new Stats(mode, queued.get(), completed.sum(), shed.sum(), totalWaitNanos.sum(), maxWaitNanos.get(),
+            totalRunNanos.sum());
+    }
+
+    public record Stats(Mode mode, int queueDepth, long completed, long shed, long totalWaitNanos,
+                        long maxWaitNanos, long totalRunNanos) {
+        public double averageWaitMicros() {
+            return completed == 0 ? 0.0 : totalWaitNanos / 1000.0 / completed;
+        }
+
+        public double averageRunMicros() {
+            return completed == 0 ? 0.0 : totalRunNanos / 1000.0 / completed;
+        }
+
+        /**
+         * Counters accumulated since {@code earlier}, for measuring one window of a run. The queue
+         * depth and maximum wait are this snapshot's, since neither can be split by window.
+         */
+        public Stats since(Stats earlier) {
+            return new Stats(mode, queueDepth, completed - earlier.completed, shed - earlier.shed,
+                totalWaitNanos - earlier.totalWaitNanos, maxWaitNanos, totalRunNanos - earlier.totalRunNanos);
+        }
+    }
+
+    public enum Mode {
+        /** Fixed pool of platform worker threads. */
+        FIXED,
+        /** One virtual thread per task. */
+        VIRTUAL,
+        /** Runs tasks on the submitting thread; results still go through the apply queue. */
+        DIRECT
+    }
+
+    public enum OverflowPolicy {
+        /** Evict the longest-waiting task to make room; reject the new task if none is waiting. */
+        DROP_OLDEST,
+        /** Reject the task being submitted. */
+        DROP_NEWEST,
+        /** Replace a waiting task for the same player and trigger; otherwise behave like DROP_NEWEST. */
+        COALESCE,
+        /** Run the task on the submitting thread. */
+        CALLER_RUNS
+    }
+
+    private static final class Task {
+        private final Object key;
+        private final long submittedAt;
+        private volatile Runnable runnable;
+        private volatile Runnable onShed;
+
+        private Task(Object key, Runnable runnable, Runnable onShed, long submittedAt) {
+            this.key = key;
+            this.runnable = runnable;
+            this.onShed = onShed;
+            this.submittedAt = submittedAt;
+        }
+    }
+
+    private static class WorkerThreadFactory implements ThreadFactory {
+        private final AtomicInteger index = new AtomicInteger(1);
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable);
+            thread.setName("moonEnchant-worker-" + index.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -1,6 +0,0 @@
-package com.moonrein.moonEnchant.service;
-
-import org.bukkit.inventory.EquipmentSlot;
-
-public record EnchantLevelSlot(int level, EquipmentSlot slot) {
-}
@@ -1,27 +1,41 @@
 package com.moonrein.moonEnchant.service;
 
+import com.moonrein.moonEnchant.config.PluginSettings;
 import com.moonrein.moonEnchant.enchant.EnchantRegistry;
+import com.moonrein.moonEnchant.enchant.TriggerDispatchTable;
+import com.moonrein.moonEnchant.enchant.TriggerDispatchTable.CompiledTriggerEffects;
+import com.moonrein.moonEnchant.metrics.EnchantMetrics;
+import com.moonrein.moonEnchant.metrics.EnchantProfiler;
+import com.moonrein.moonEnchant.metrics.ProfileReport;
+import com.moonrein.moonEnchant.metrics.ReportFile;
+import com.moonrein.moonEnchant.metrics.TraceBuffer;
+import com.moonrein.moonEnchant.metrics.TraceReport;
 import com.moonrein.moonEnchant.model.AttributeModifierSpec;
 import com.moonrein.moonEnchant.model.EffectRecipient;
 import com.moonrein.moonEnchant.model.EffectSpec;
 import com.moonrein.moonEnchant.model.EnchantDefinition;
-import com.moonrein.moonEnchant.model.EnchantLevelConfig;
 import com.moonrein.moonEnchant.model.EnchantTrigger;
-import com.moonrein.moonEnchant.model.StackRule;
+import com.moonrein.moonEnchant.service.PlayerEnchantState.AppliedModifier;
+import com.moonrein.moonEnchant.service.TriggerEvaluator.EffectApplication;
+import com.moonrein.moonEnchant.service.TriggerEvaluator.TriggerComputation;
+import com.moonrein.moonEnchant.util.DecodedEnchantCache;
+import com.moonrein.moonEnchant.util.EnchantLevels;
 import com.moonrein.moonEnchant.util.ItemEnchantStorage;
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
-import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
+import org.bukkit.Location;
 import org.bukkit.attribute.Attribute;
 import org.bukkit.attribute.AttributeInstance;
 import org.bukkit.attribute.AttributeModifier;
@@ -29,67 +43,239 @@ import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.EquipmentSlot;
 import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.PlayerInventory;
 import org.bukkit.inventory.meta.ItemMeta;
 import org.bukkit.potion.PotionEffect;
 import org.bukkit.plugin.java.JavaPlugin;
 
 public class EnchantService {
+    static final int PASSIVE_INTERVAL_TICKS = 20;
+    private static final int PASSIVE_REFRESH_MARGIN_TICKS = 10;
+    private static final EquipmentSlot[] EQUIPMENT_SLOTS = {
+        EquipmentSlot.HAND,
+        EquipmentSlot.OFF_HAND,
+        EquipmentSlot.HEAD,
+        EquipmentSlot.CHEST,
+        EquipmentSlot.LEGS,
+        EquipmentSlot.FEET
+    };
+
     private final JavaPlugin plugin;
     private final EnchantRegistry registry;
     private final ItemEnchantStorage storage;
-    private final ExecutorService executor;
-    private final AtomicBoolean passiveTickRunning = new AtomicBoolean(false);
-    private final Map<UUID, PlayerEnchantState> playerState = new HashMap<>();
-    private final Map<UUID, Boolean> debugEnabled = new HashMap<>();
-
-    public EnchantService(JavaPlugin plugin, EnchantRegistry registry, ItemEnchantStorage storage, ExecutorService executor) {
+    private final EnchantExecutor executor;
+    private volatile PluginSettings settings;
+    private final RefreshQueue refreshQueue = new RefreshQueue();
+    private final ApplyQueue<TriggerComputation> applyQueue;
+    private final TriggerEvaluator evaluator;
+    private final boolean[] passiveBucketInFlight = new boolean[PASSIVE_INTERVAL_TICKS];
+    private final PassiveBuckets passiveBuckets = new PassiveBuckets();
+    private int passiveCycleTick;
+    // Written only on the main thread; concurrent so any thread can look up a player's state safely.
+    private final Map<UUID, PlayerEnchantState> playerState = new ConcurrentHashMap<>();
+    private TokenBucket globalProcBucket;
+    private EnchantRegistry.Remap lastRemap;
+    private final EnchantMetrics metrics = new EnchantMetrics();
+    private final TraceBuffer trace;
+    private final Location sampleLocation = new Location(null, 0, 0, 0);
+
+    public EnchantService(JavaPlugin plugin, EnchantRegistry registry, ItemEnchantStorage storage,
+                          EnchantExecutor executor, PluginSettings settings) {
         this.plugin = plugin;
         this.registry = registry;
         this.storage = storage;
         this.executor = executor;
+        this.settings = settings;
+        this.trace = new TraceBuffer(settings.getTraceCapacity());
+        this.evaluator = new TriggerEvaluator(registry, metrics, trace);
+        PluginSettings.ApplyQueueOptions applyQueueOptions = settings.getApplyQueue();
+        this.applyQueue = new ApplyQueue<>(applyQueueOptions.maxSize(), applyQueueOptions.overflowPolicy(),
+            TriggerComputation::mergeKey, TriggerComputation::mergedWith);
+        this.globalProcBucket = newGlobalProcBucket(settings);
     }
 
     public void refreshPlayer(Player player) {
-        PlayerEnchantState state = playerState.computeIfAbsent(player.getUniqueId(), id -> new PlayerEnchantState());
-        state.setEquippedEnchantLevels(scanEquippedEnchantments(player));
-        removeExistingModifiers(player);
-        applyAttributeModifiers(player, state.getEquippedEnchantLevels());
+        PlayerEnchantState state = playerState.get(player.getUniqueId());
+        if (state == null) {
+            state = new PlayerEnchantState(player.getUniqueId(), newPlayerProcBucket(settings));
+            playerState.put(player.getUniqueId(), state);
+            passiveBuckets.add(player);
+            // Modifiers persist with player data, so sweep leftovers once before tracking starts.
+            removeExistingModifiers(player);
+        }
+        PlayerInventory inventory = player.getInventory();
+        for (EquipmentSlot slot : EQUIPMENT_SLOTS) {
+            state.setSlotEnchants(slot, storage.getEnchantLevels(inventory.getItem(slot)));
+        }
+        setEquippedEnchants(state, buildEquippedEnchants(state));
+        syncAttributeModifiers(player, state);
+    }
+
+    /**
+     * Switches to reloaded settings. Limits, thresholds and anti-AFK options apply immediately;
+     * executor and apply-queue sizing, the trace buffer and the metrics export are fixed at startup
+     * and need a restart. Main thread only.
+     */
+    public void applySettings(PluginSettings settings) {
+        PluginSettings.LimiterOptions previous = this.settings.getLimiter();
+        this.settings = settings;
+        // Rebuilt buckets start full, so only replace them when the rate changed.
+        if (settings.getLimiter().globalMaxProcsPerSecond() != previous.globalMaxProcsPerSecond()) {
+            this.globalProcBucket = newGlobalProcBucket(settings);
+        }
+        if (settings.getLimiter().maxProcsPerSecond() != previous.maxProcsPerSecond()) {
+            for (PlayerEnchantState state : playerState.values()) {
+                state.setProcBucket(newPlayerProcBucket(settings));
+            }
+        }
+    }
+
+    /**
+     * Moves every tracked player onto the registry snapshot just published, so triggers keep firing
+     * until their queued full refresh re-reads their items. Decoded slots are translated to the new
+     * ordinals, dropping removed enchants, and cooldowns and heat are remapped. Main thread only.
+     */
+    public void rebindRegistry() {
+        EnchantRegistry.Snapshot current = registry.getSnapshot();
+        for (PlayerEnchantState state : playerState.values()) {
+            if (state.getRegistryVersion() == current.getVersion()) {
+                continue;
+            }
+            EnchantRegistry.Remap remap = remapFor(state.getRegistry(), current);
+            for (EquipmentSlot slot : EQUIPMENT_SLOTS) {
+                state.setSlotEnchants(slot, remap != null
+                    ? remapLevels(state.getSlotEnchants(slot), remap)
+                    : EnchantLevels.EMPTY);
+            }
+            setEquippedEnchants(state, buildEquippedEnchants(state));
+        }
+    }
+
+    /**
+     * Marks equipment slots dirty. Requests are merged per player and resolved once at the end
+     * of the tick, after the inventory change that caused them has applied.
+     */
+    public void requestRefresh(Player player, Set<EquipmentSlot> slots) {
+        refreshQueue.mark(player.getUniqueId(), RefreshQueue.slotMask(slots));
+    }
+
+    public void requestFullRefresh(Player player) {
+        refreshQueue.mark(player.getUniqueId(), RefreshQueue.FULL_REFRESH);
+    }
+
+    /**
+     * Drains queued refreshes up to the configured per-tick budget; the rest wait for the next tick.
+     */
+    public void drainRefreshQueue() {
+        refreshQueue.drain(settings.getRefresh().budgetPerTick(), (playerId, mask) -> {
+            Player player = Bukkit.getPlayer(playerId);
+            if (player == null || !player.isOnline()) {
+                return;
+            }
+            long startedAt = System.nanoTime();
+            if ((mask & RefreshQueue.FULL_REFRESH) != 0) {
+                refreshPlayer(player);
+            } else {
+                refreshSlots(player, mask);
+            }
+            metrics.getRefreshDuration().record(System.nanoTime() - startedAt);
+        });
+    }
+
+    /**
+     * Applies every trigger result the workers completed since the last tick in one batch, so each
+     * recipient gets at most one effect per potion type however many results produced one.
+     */
+    public void drainTriggerResults() {
+        EffectBatch<Proc> batch = new EffectBatch<>();
+        applyQueue.drain(result -> collectHandedOffResult(result, batch));
+        sendEffects(batch);
     }
 
     public void removePlayer(Player player) {
-        playerState.remove(player.getUniqueId());
-        debugEnabled.remove(player.getUniqueId());
-        removeExistingModifiers(player);
+        refreshQueue.remove(player.getUniqueId());
+        passiveBuckets.remove(player.getUniqueId());
+        PlayerEnchantState state = playerState.remove(player.getUniqueId());
+        if (state == null) {
+            removeExistingModifiers(player);
+            return;
+        }
+        for (AppliedModifier applied : state.getAppliedModifiers().values()) {
+            removeModifier(player, applied.spec());
+        }
+        state.getAppliedModifiers().clear();
     }
 
+    /**
+     * Runs every tick. Players are hashed into up to {@value #PASSIVE_INTERVAL_TICKS} buckets and
+     * the buckets are spaced evenly over the cycle, bucket {@code tick * count / interval} running
+     * on the tick where that value changes, so each player is still handled once per second while
+     * the snapshot, compute and apply cost is spread across the whole second. Only the current
+     * bucket's players are visited. The bucket count is re-derived from the tracked player count at
+     * the start of every cycle.
+     */
     public void tickPassiveEffects() {
-        if (!passiveTickRunning.compareAndSet(false, true)) {
+        int tick = passiveCycleTick;
+        passiveCycleTick = (passiveCycleTick + 1) % PASSIVE_INTERVAL_TICKS;
+        if (tick == 0) {
+            passiveBuckets.resize(passiveBucketCount(passiveBuckets.playerCount()));
+        }
+        int count = passiveBuckets.bucketCount();
+        int bucket = tick * count / PASSIVE_INTERVAL_TICKS;
+        if ((tick > 0 && (tick - 1) * count / PASSIVE_INTERVAL_TICKS == bucket) || passiveBucketInFlight[bucket]) {
             return;
         }
+        long currentTick = Bukkit.getCurrentTick();
+        long startedAtNanos = System.nanoTime();
         List<PlayerSnapshot> snapshots = new ArrayList<>();
-        for (Player player : Bukkit.getOnlinePlayers()) {
-            snapshots.add(snapshotPlayer(player));
-        }
-        executor.execute(() -> {
-            List<TriggerComputation> results = new ArrayList<>();
-            for (PlayerSnapshot snapshot : snapshots) {
-                results.add(computeTrigger(snapshot, EnchantTrigger.PASSIVE, null));
+        for (Player player : passiveBuckets.get(bucket)) {
+            PlayerEnchantState state = playerState.get(player.getUniqueId());
+            if (state == null) {
+                continue;
             }
-            if (!plugin.isEnabled()) {
-                passiveTickRunning.set(false);
-                return;
+            if (settings.getAntiAfk().enabled()) {
+                sampleMovement(player, state, currentTick);
+                if (isAfk(state, EnchantTrigger.PASSIVE, currentTick)) {
+                    continue;
+                }
             }
-            Bukkit.getScheduler().runTask(plugin, () -> {
-                try {
-                    for (TriggerComputation result : results) {
-                        applyTriggerResult(result);
-                        coolHeat(result.playerId());
-                    }
-                } finally {
-                    passiveTickRunning.set(false);
+            if (state.canFire(EnchantTrigger.PASSIVE)) {
+                snapshots.add(state.getSnapshot());
+            }
+        }
+        metrics.recordTriggerEvents(EnchantTrigger.PASSIVE, snapshots.size());
+        if (snapshots.isEmpty()) {
+            metrics.getPassiveTickDuration().record(System.nanoTime() - startedAtNanos);
+            return;
+        }
+        passiveBucketInFlight[bucket] = true;
+        // Every path out of the task clears the flag, or the bucket would never run again: shed
+        // tasks clear it directly (submissions and therefore sheds happen on the main thread), and
+        // run tasks clear it on the main thread even if evaluation throws.
+        executor.execute(null, () -> {
+            List<TriggerComputation> results = new ArrayList<>();
+            try {
+                for (PlayerSnapshot snapshot : snapshots) {
+                    results.add(evaluator.evaluate(snapshot, EnchantTrigger.PASSIVE, null, currentTick,
+                        startedAtNanos));
                 }
-            });
-        });
+            } finally {
+                if (plugin.isEnabled()) {
+                    Bukkit.getScheduler().runTask(plugin, () -> {
+                        try {
+                            EffectBatch<Proc> batch = new EffectBatch<>();
+                            for (TriggerComputation result : results) {
+                                collectHandedOffResult(result, batch);
+                            }
+                            sendEffects(batch);
+                        } finally {
+                            passiveBucketInFlight[bucket] = false;
+                        }
+                    });
+                }
+            }
+        }, () -> passiveBucketInFlight[bucket] = false);
+        metrics.getPassiveTickDuration().record(System.nanoTime() - startedAtNanos);
     }
 
     public void handleHit(Player player, LivingEntity target) {
@@ -108,12 +294,6 @@ public class EnchantService {
         scheduleTrigger(player, null, EnchantTrigger.ON_FISH);
     }
 
-    public void toggleDebug(Player player) {
-        boolean next = !debugEnabled.getOrDefault(player.getUniqueId(), false);
-        debugEnabled.put(player.getUniqueId(), next);
-        player.sendMessage("MoonEnchant debug: " + (next ? "ON" : "OFF"));
-    }
-
     public Optional<EnchantDefinition> getDefinition(String id) {
         return registry.getById(id);
     }
@@ -122,41 +302,191 @@ public class EnchantService {
         return storage.getEnchantments(itemStack);
     }
 
+    public DecodedEnchantCache.Stats getItemCacheStats() {
+        return storage.getCacheStats();
+    }
+
+    public EnchantExecutor.Stats getExecutorStats() {
+        return executor.getStats();
+    }
+
+    public EnchantMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Starts a profiling session that times one in {@code sampleEvery} trigger evaluations and
+     * applications.
+     *
+     * @return false if a session is already running
+     */
+    public boolean startProfiling(int sampleEvery) {
+        return metrics.getProfiler().start(registry.getSnapshot(), sampleEvery, metrics.getProcCounts());
+    }
+
+    public boolean isProfiling() {
+        return metrics.getProfiler().isRunning();
+    }
+
+    /**
+     * Stops the profiling session and writes its report to the profiles folder off the main thread.
+     * The callback runs on the main thread once the file is written.
+     *
+     * @return false if no session was running
+     */
+    public boolean stopProfiling(Consumer<ReportFile.Result> callback) {
+        EnchantProfiler.Session session = metrics.getProfiler().stop();
+        if (session == null) {
+            return false;
+        }
+        String report = ProfileReport.render(session, metrics.getProcCounts(), registry.getVersion(),
+            System.nanoTime());
+        writeReport(new File(new File(plugin.getDataFolder(), "profiles"),
+            ReportFile.fileName("profile", session.getStartedAtMillis())), report, callback);
+        return true;
+    }
+
+    /**
+     * Recent trigger outcomes of all players, for {@code /ce trace} and {@code /ce debug}.
+     */
+    public TraceBuffer getTrace() {
+        return trace;
+    }
+
+    /**
+     * Writes every buffered trace event, or only those of one player, to the traces folder off the
+     * main thread. The callback runs on the main thread once the file is written.
+     *
+     * @param playerId the player to dump, or {@code null} for all players
+     */
+    public void dumpTrace(UUID playerId, Consumer<ReportFile.Result> callback) {
+        String report = TraceReport.render(trace.recent(playerId, trace.getCapacity()), registry.getSnapshot(),
+            Bukkit.getCurrentTick(), trace.getCapacity());
+        writeReport(new File(new File(plugin.getDataFolder(), "traces"),
+            ReportFile.fileName("trace", System.currentTimeMillis())), report, callback);
+    }
+
+    private void writeReport(File file, String report, Consumer<ReportFile.Result> callback) {
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            IOException failure = null;
+            try {
+                ReportFile.write(file, report);
+            } catch (IOException ex) {
+                failure = ex;
+            }
+            if (!plugin.isEnabled()) {
+                return;
+            }
+            IOException error = failure;
+            Bukkit.getScheduler().runTask(plugin, () -> callback.accept(new ReportFile.Result(file, error)));
+        });
+    }
+
+    /**
+     * Worker results waiting for the main thread.
+     */
+    public int getApplyQueueDepth() {
+        return applyQueue.size();
+    }
+
+    public long getApplyQueueDropped() {
+        return applyQueue.getDropped();
+    }
+
+    public long getApplyQueueMerged() {
+        return applyQueue.getMerged();
+    }
+
     public void setItemEnchantments(ItemStack itemStack, Map<String, Integer> enchantments) {
         storage.setEnchantments(itemStack, enchantments);
         updateItemVisuals(itemStack, enchantments);
     }
 
-    private void applyAttributeModifiers(Player player, Map<String, List<EnchantLevelSlot>> enchantLevels) {
-        for (Map.Entry<String, List<EnchantLevelSlot>> entry : enchantLevels.entrySet()) {
-            EnchantDefinition definition = registry.getById(entry.getKey()).orElse(null);
+    /**
+     * Rescans only the slots in the mask and re-syncs modifiers when the equipped set changed.
+     */
+    private void refreshSlots(Player player, int slotMask) {
+        PlayerEnchantState state = playerState.get(player.getUniqueId());
+        if (state == null || state.getRegistryVersion() != registry.getVersion()) {
+            // Slots decoded under an older registry hold stale ordinals; rescan them all together.
+            refreshPlayer(player);
+            return;
+        }
+        PlayerInventory inventory = player.getInventory();
+        boolean changed = false;
+        for (EquipmentSlot slot : EQUIPMENT_SLOTS) {
+            if ((slotMask & RefreshQueue.slotBit(slot)) != 0) {
+                changed |= state.setSlotEnchants(slot, storage.getEnchantLevels(inventory.getItem(slot)));
+            }
+        }
+        if (changed) {
+            setEquippedEnchants(state, buildEquippedEnchants(state));
+            syncAttributeModifiers(player, state);
+        }
+    }
+
+    /**
+     * Applies the minimal add/remove/update diff between the modifiers the state tracks as applied
+     * and the ones the equipped set calls for. Unchanged modifiers are left alone, so the client
+     * gets no attribute update for them.
+     */
+    private void syncAttributeModifiers(Player player, PlayerEnchantState state) {
+        Map<UUID, AppliedModifier> desired = new HashMap<>();
+        EquippedEnchants equipped = state.getEquippedEnchants();
+        for (int i = 0; i < equipped.size(); i++) {
+            EnchantDefinition definition = registry.getByOrdinal(equipped.ordinal(i));
             if (definition == null) {
                 continue;
             }
             for (AttributeModifierSpec spec : definition.getAttributeModifiers()) {
-                List<EnchantLevelSlot> matchingSlots = entry.getValue().stream()
-                    .filter(levelSlot -> levelSlot.slot() == spec.getSlot())
-                    .toList();
-                if (matchingSlots.isEmpty()) {
-                    continue;
-                }
-                int effectiveLevel = resolveLevel(spec.getStackRule(), matchingSlots);
-                if (effectiveLevel <= 0) {
-                    continue;
-                }
-                AttributeInstance instance = player.getAttribute(spec.getAttribute());
-                if (instance == null) {
-                    continue;
-                }
-                AttributeModifier existing = instance.getModifier(spec.getUuid());
-                if (existing != null) {
-                    instance.removeModifier(existing);
+                int effectiveLevel = equipped.level(i, spec.getSlot());
+                if (effectiveLevel > 0) {
+                    desired.put(spec.getUuid(), new AppliedModifier(spec, spec.getAmount() * effectiveLevel));
                 }
-                double amount = spec.getAmount() * effectiveLevel;
-                AttributeModifier modifier = new AttributeModifier(spec.getUuid(), spec.getName(), amount, spec.getOperation(), spec.getSlot());
-                instance.addModifier(modifier);
             }
         }
+        Map<UUID, AppliedModifier> applied = state.getAppliedModifiers();
+        Iterator<AppliedModifier> iterator = applied.values().iterator();
+        while (iterator.hasNext()) {
+            AppliedModifier current = iterator.next();
+            if (!desired.containsKey(current.spec().getUuid())) {
+                removeModifier(player, current.spec());
+                iterator.remove();
+            }
+        }
+        for (AppliedModifier target : desired.values()) {
+            AppliedModifier current = applied.get(target.spec().getUuid());
+            if (current != null && current.matches(target)) {
+                continue;
+            }
+            if (current != null) {
+                removeModifier(player, current.spec());
+            }
+            AttributeInstance instance = player.getAttribute(target.spec().getAttribute());
+            if (instance == null) {
+                applied.remove(target.spec().getUuid());
+                continue;
+            }
+            AttributeModifierSpec spec = target.spec();
+            AttributeModifier existing = instance.getModifier(spec.getUuid());
+            if (existing != null) {
+                instance.removeModifier(existing);
+            }
+            instance.addModifier(new AttributeModifier(spec.getUuid(), spec.getName(), target.amount(),
+                spec.getOperation(), spec.getSlot()));
+            applied.put(spec.getUuid(), target);
+        }
+    }
+
+    private void removeModifier(Player player, AttributeModifierSpec spec) {
+        AttributeInstance instance = player.getAttribute(spec.getAttribute());
+        if (instance == null) {
+            return;
+        }
+        AttributeModifier existing = instance.getModifier(spec.getUuid());
+        if (existing != null) {
+            instance.removeModifier(existing);
+        }
     }
 
     private void updateItemVisuals(ItemStack itemStack, Map<String, Integer> enchantments) {
@@ -231,120 +561,100 @@ public class EnchantService {
         }
     }
 
-    private int resolveLevel(StackRule rule, List<EnchantLevelSlot> levels) {
-        if (levels.isEmpty()) {
-            return 0;
-        }
-        return switch (rule) {
-            case STACK_PER_SLOT -> levels.stream().mapToInt(EnchantLevelSlot::level).sum();
-            case NO_STACK, MAX_LEVEL -> levels.stream().mapToInt(EnchantLevelSlot::level).max().orElse(0);
-        };
-    }
-
-    private int resolveMaxLevel(List<EnchantLevelSlot> levels) {
-        return levels.stream().mapToInt(EnchantLevelSlot::level).max().orElse(0);
-    }
-
-    private EnchantLevelConfig resolveLevelConfig(EnchantDefinition definition, int level) {
-        if (level < 1 || definition.getLevelConfigs().isEmpty()) {
-            return null;
-        }
-        EnchantLevelConfig direct = definition.getLevelConfigs().get(level);
-        if (direct != null) {
-            return direct;
-        }
-        int closest = -1;
-        for (Integer configured : definition.getLevelConfigs().keySet()) {
-            if (configured <= level && configured > closest) {
-                closest = configured;
+    private void setEquippedEnchants(PlayerEnchantState state, EquippedEnchants equipped) {
+        EnchantRegistry.Snapshot current = registry.getSnapshot();
+        TriggerDispatchTable dispatchTable = current.getDispatchTable();
+        EnchantTrigger[] triggers = EnchantTrigger.values();
+        int[] effectCounts = new int[triggers.length];
+        int mask = 0;
+        for (EnchantTrigger trigger : triggers) {
+            for (int i = 0; i < equipped.size(); i++) {
+                CompiledTriggerEffects compiled = dispatchTable.get(trigger, equipped.ordinal(i));
+                if (compiled != null) {
+                    effectCounts[trigger.ordinal()] += compiled.effectsFor(equipped.maxLevel(i)).length;
+                }
             }
+            if (effectCounts[trigger.ordinal()] > 0) {
+                mask |= 1 << trigger.ordinal();
+            }
+        }
+        if (state.getRegistryVersion() != current.getVersion()) {
+            // Ordinals and effect slots are reassigned on reload, so cooldowns and heat move to the new ones.
+            state.bindRegistry(current, remapFor(state.getRegistry(), current), Bukkit.getCurrentTick());
         }
-        return closest > 0 ? definition.getLevelConfigs().get(closest) : null;
+        state.setEquippedEnchants(equipped, mask, effectCounts);
     }
 
-    private Map<String, List<EnchantLevelSlot>> scanEquippedEnchantments(Player player) {
-        Map<String, List<EnchantLevelSlot>> result = new HashMap<>();
-        Map<EquipmentSlot, ItemStack> items = new EnumMap<>(EquipmentSlot.class);
-        items.put(EquipmentSlot.HAND, player.getInventory().getItemInMainHand());
-        items.put(EquipmentSlot.OFF_HAND, player.getInventory().getItemInOffHand());
-        items.put(EquipmentSlot.HEAD, player.getInventory().getHelmet());
-        items.put(EquipmentSlot.CHEST, player.getInventory().getChestplate());
-        items.put(EquipmentSlot.LEGS, player.getInventory().getLeggings());
-        items.put(EquipmentSlot.FEET, player.getInventory().getBoots());
-
-        for (Map.Entry<EquipmentSlot, ItemStack> entry : items.entrySet()) {
-            Map<String, Integer> enchants = storage.getEnchantments(entry.getValue());
-            for (Map.Entry<String, Integer> enchantEntry : enchants.entrySet()) {
-                result.computeIfAbsent(enchantEntry.getKey(), key -> new ArrayList<>())
-                    .add(new EnchantLevelSlot(enchantEntry.getValue(), entry.getKey()));
-            }
+    private EquippedEnchants buildEquippedEnchants(PlayerEnchantState state) {
+        EquippedEnchants.Builder builder = EquippedEnchants.builder();
+        for (EquipmentSlot slot : EQUIPMENT_SLOTS) {
+            builder.add(slot, state.getSlotEnchants(slot));
         }
-        return result;
+        return builder.build();
     }
 
+    /**
+     * Players without an equipped effect for the trigger, or without proc budget left, return
+     * immediately. Cheap evaluations run inline on the main thread; larger ones go through the
+     * executor and the apply queue.
+     */
     private void scheduleTrigger(Player player, LivingEntity target, EnchantTrigger trigger) {
-        PlayerSnapshot snapshot = snapshotPlayer(player);
+        metrics.recordTriggerEvent(trigger);
+        PlayerEnchantState state = playerState.get(player.getUniqueId());
+        if (state == null || !state.canFire(trigger)) {
+            return;
+        }
+        long startedAtNanos = System.nanoTime();
+        long currentTick = Bukkit.getCurrentTick();
+        if (isAfk(state, trigger, currentTick)) {
+            return;
+        }
+        if (!hasProcBudget(state, currentTick)) {
+            metrics.recordRateLimited();
+            trace.record(state.getPlayerId(), currentTick, trigger, state.getRegistryVersion(), -1, -1,
+                TraceBuffer.Outcome.RATE_LIMITED, Double.NaN, Double.NaN, Double.NaN);
+            return;
+        }
+        PlayerSnapshot snapshot = state.getSnapshot();
         UUID targetId = target != null ? target.getUniqueId() : null;
-        executor.execute(() -> {
-            TriggerComputation result = computeTrigger(snapshot, trigger, targetId);
-            if (!plugin.isEnabled()) {
+        if (state.getEffectCount(trigger) <= settings.getExecutor().inlineEffectThreshold()) {
+            EffectBatch<Proc> batch = new EffectBatch<>();
+            collectTriggerResult(evaluator.evaluate(snapshot, trigger, targetId, currentTick, startedAtNanos), batch);
+            sendEffects(batch);
+            return;
+        }
+        executor.execute(new TriggerKey(snapshot.playerId(), trigger), () -> {
+            TriggerComputation result = evaluator.evaluate(snapshot, trigger, targetId, currentTick, startedAtNanos);
+            if (result.applications().isEmpty()) {
                 return;
             }
-            Bukkit.getScheduler().runTask(plugin, () -> applyTriggerResult(result));
+            applyQueue.offer(result);
         });
     }
 
-    private TriggerComputation computeTrigger(PlayerSnapshot snapshot, EnchantTrigger trigger, UUID targetId) {
-        List<EffectApplication> applications = new ArrayList<>();
-        List<DebugRecord> debugRecords = snapshot.debugEnabled() ? new ArrayList<>() : List.of();
-        for (Map.Entry<String, List<EnchantLevelSlot>> entry : snapshot.enchantLevels().entrySet()) {
-            EnchantDefinition definition = registry.getById(entry.getKey()).orElse(null);
-            if (definition == null) {
-                continue;
-            }
-            int effectiveLevel = resolveMaxLevel(entry.getValue());
-            EnchantLevelConfig levelConfig = resolveLevelConfig(definition, effectiveLevel);
-            List<String> allowedEffects = levelConfig != null && !levelConfig.effects().isEmpty()
-                ? levelConfig.effects()
-                : null;
-            for (EffectSpec effect : definition.getEffects()) {
-                if (allowedEffects != null && !allowedEffects.contains(effect.getKey())) {
-                    continue;
-                }
-                if (effect.getTrigger() != trigger) {
-                    continue;
-                }
-                if (isOnCooldown(snapshot, definition.getId(), effect)) {
-                    if (snapshot.debugEnabled()) {
-                        debugRecords.add(new DebugRecord(definition, trigger, "cooldown"));
-                    }
-                    continue;
-                }
-                double chance = applyHeatScaling(snapshot, definition, effect.getChance());
-                if (ThreadLocalRandom.current().nextDouble() > chance) {
-                    if (snapshot.debugEnabled()) {
-                        debugRecords.add(new DebugRecord(definition, trigger, "chance"));
-                    }
-                    continue;
-                }
-                applications.add(new EffectApplication(definition, effect));
-                if (snapshot.debugEnabled()) {
-                    debugRecords.add(new DebugRecord(definition, trigger, "applied"));
-                }
-            }
-        }
-        return new TriggerComputation(snapshot.playerId(), targetId, trigger, applications, debugRecords);
+    private void collectHandedOffResult(TriggerComputation result, EffectBatch<Proc> batch) {
+        metrics.getHandoffLatency().record(System.nanoTime() - result.evaluatedAtNanos());
+        collectTriggerResult(result, batch);
     }
 
-    private void applyTriggerResult(TriggerComputation result) {
+    /**
+     * Adds the result's effects to {@code batch}. Proc budget, cooldown and heat are only charged by
+     * {@link #sendEffects} for effects that are actually sent.
+     */
+    private void collectTriggerResult(TriggerComputation result, EffectBatch<Proc> batch) {
         Player player = Bukkit.getPlayer(result.playerId());
         if (player == null) {
             return;
         }
         PlayerEnchantState state = playerState.get(result.playerId());
-        if (state == null) {
+        if (state == null || state.getRegistryVersion() != result.registryVersion()) {
             return;
         }
+        metrics.getTriggerLatency().record(System.nanoTime() - result.startedAtNanos());
+        // Proc counts are keyed by ordinal, so only count results from the current registry.
+        EnchantRegistry.Snapshot registrySnapshot = registry.getSnapshot();
+        boolean countProcs = registrySnapshot.getVersion() == result.registryVersion();
+        long currentTick = Bukkit.getCurrentTick();
         LivingEntity target = null;
         if (result.targetId() != null) {
             var entity = Bukkit.getEntity(result.targetId());
@@ -352,97 +662,218 @@ public class EnchantService {
                 target = living;
             }
         }
+        EnchantProfiler.Session profile = metrics.getProfiler().sample(result.registryVersion());
         for (EffectApplication application : result.applications()) {
-            EffectSpec effect = application.effect();
-            LivingEntity recipient = effect.getRecipient() == EffectRecipient.TARGET ? target : player;
-            if (recipient == null) {
-                continue;
-            }
-            PotionEffect potionEffect = new PotionEffect(effect.getType(), effect.getDurationTicks(),
-                effect.getAmplifier(), effect.isAmbient(), effect.hasParticles(), effect.hasIcon());
-            recipient.addPotionEffect(potionEffect, true);
-            state.setCooldown(application.definition().getId(),
-                effect.getType().getName().toLowerCase(Locale.ROOT),
-                effect.getCooldownTicks());
-            state.addHeat(application.definition());
-        }
-        if (debugEnabled.getOrDefault(player.getUniqueId(), false)) {
-            for (DebugRecord record : result.debugRecords()) {
-                debug(player, record.definition(), record.trigger(), record.reason());
+            long applicationStartedAt = profile != null ? System.nanoTime() : 0L;
+            try {
+                EffectSpec effect = application.effect();
+                boolean onTarget = effect.getRecipient() == EffectRecipient.TARGET;
+                if (onTarget && target == null) {
+                    trace(result, application, TraceBuffer.Outcome.NO_TARGET, currentTick);
+                    continue;
+                }
+                PotionEffect potionEffect = new PotionEffect(effect.getType(), effect.getDurationTicks(),
+                    capAmplifier(effect.getAmplifier()), effect.isAmbient(), effect.hasParticles(), effect.hasIcon());
+                int refreshThreshold = result.trigger() == EnchantTrigger.PASSIVE
+                    ? passiveRefreshThreshold(effect.getDurationTicks())
+                    : settings.getRefresh().effectThresholdTicks();
+                EffectBatch.Entry<Proc> merged = batch.add(new EffectBatch.Entry<>(onTarget ? target : player,
+                    potionEffect, refreshThreshold, new Proc(result, application, state, countProcs, profile)));
+                if (merged != null) {
+                    metrics.recordSuppressedEffect();
+                    trace(merged.source(), TraceBuffer.Outcome.SUPPRESSED, currentTick);
+                }
+            } finally {
+                if (profile != null) {
+                    profile.recordApply(application.effectSlot(), System.nanoTime() - applicationStartedAt);
+                }
             }
         }
     }
 
-    private void coolHeat(UUID playerId) {
-        PlayerEnchantState state = playerState.get(playerId);
-        if (state == null) {
+    /**
+     * Sends the batch. Only effects that reach the recipient take a proc token, charge their cooldown
+     * and heat and count as procs; one skipped because the recipient already has it costs nothing.
+     */
+    private void sendEffects(EffectBatch<Proc> batch) {
+        if (batch.isEmpty()) {
             return;
         }
-        for (String id : state.getEquippedEnchantLevels().keySet()) {
-            registry.getById(id).ifPresent(state::coolHeat);
-        }
+        long currentTick = Bukkit.getCurrentTick();
+        EnchantRegistry.Snapshot registrySnapshot = registry.getSnapshot();
+        batch.forEach(entry -> {
+            Proc proc = entry.source();
+            PlayerEnchantState state = proc.state();
+            boolean limited = proc.result().trigger() != EnchantTrigger.PASSIVE;
+            if (limited && !hasProcBudget(state, currentTick)) {
+                metrics.recordRateLimited();
+                trace(proc, TraceBuffer.Outcome.RATE_LIMITED, currentTick);
+                return;
+            }
+            long sendStartedAt = proc.profile() != null ? System.nanoTime() : 0L;
+            boolean sent = applyPotionEffect(entry.recipient(), entry.effect(), entry.refreshThreshold());
+            EffectApplication application = proc.application();
+            if (proc.profile() != null) {
+                proc.profile().recordSend(application.effectSlot(), System.nanoTime() - sendStartedAt);
+            }
+            if (!sent) {
+                trace(proc, TraceBuffer.Outcome.SUPPRESSED, currentTick);
+                return;
+            }
+            if (limited) {
+                acquireProc(state, currentTick);
+            }
+            state.setCooldown(application.cooldownSlot(), application.effect().getCooldownTicks(), currentTick);
+            state.addHeat(application.ordinal(), application.definition(), currentTick);
+            if (proc.countProc()) {
+                metrics.recordProc(registrySnapshot, application.ordinal(), application.effectSlot());
+            }
+            trace(proc, TraceBuffer.Outcome.APPLIED, currentTick);
+        });
     }
 
-    private boolean isOnCooldown(PlayerSnapshot snapshot, String enchantId, EffectSpec effect) {
-        String key = enchantId + ":" + effect.getType().getName().toLowerCase(Locale.ROOT);
-        Long until = snapshot.cooldowns().get(key);
-        return until != null && until > System.currentTimeMillis();
+    private void trace(Proc proc, TraceBuffer.Outcome outcome, long currentTick) {
+        trace(proc.result(), proc.application(), outcome, currentTick);
     }
 
-    private double applyHeatScaling(PlayerSnapshot snapshot, EnchantDefinition definition, double baseChance) {
-        double max = definition.getHeatMax();
-        if (max <= 0) {
-            return baseChance;
-        }
-        double heat = snapshot.heat().getOrDefault(definition.getId(), 0.0);
-        double factor = Math.max(0.2, 1.0 - (heat / max));
-        return baseChance * factor;
+    private void trace(TriggerComputation result, EffectApplication application, TraceBuffer.Outcome outcome,
+                       long currentTick) {
+        trace.record(result.playerId(), currentTick, result.trigger(), result.registryVersion(),
+            application.ordinal(), application.effectIndex(), outcome, application.roll(), application.chance(),
+            application.heatFactor());
     }
 
-    private void debug(Player player, EnchantDefinition definition, EnchantTrigger trigger, String reason) {
-        if (!debugEnabled.getOrDefault(player.getUniqueId(), false)) {
-            return;
+    /**
+     * Skips the call, and the entity effect packet it sends, when the recipient already has the same
+     * or a stronger effect with more than {@code refreshThreshold} ticks left.
+     *
+     * @return whether the effect was sent
+     */
+    private boolean applyPotionEffect(LivingEntity recipient, PotionEffect effect, int refreshThreshold) {
+        PotionEffect active = recipient.getPotionEffect(effect.getType());
+        if (active != null
+            && active.getAmplifier() >= effect.getAmplifier()
+            && (active.isInfinite() || active.getDuration() > refreshThreshold)) {
+            metrics.recordSuppressedEffect();
+            return false;
+        }
+        recipient.addPotionEffect(effect, true);
+        return true;
+    }
+
+    /**
+     * Passive effects are offered again every cycle, but are only resent when they would not outlast
+     * the next cycle: an effect with more than one interval plus {@value #PASSIVE_REFRESH_MARGIN_TICKS}
+     * ticks of slack left is skipped. A 60-tick effect is therefore resent every other cycle. Effects
+     * are never resent while they still have their full duration left, so a second application
+     * within the same cycle is skipped.
+     */
+    static int passiveRefreshThreshold(int durationTicks) {
+        return Math.max(0, Math.min(PASSIVE_INTERVAL_TICKS + PASSIVE_REFRESH_MARGIN_TICKS, durationTicks - 1));
+    }
+
+    /**
+     * Movement is sampled once per passive cycle from the passive tick instead of from
+     * {@code PlayerMoveEvent}, so tracking costs one location read per player per second.
+     */
+    private void sampleMovement(Player player, PlayerEnchantState state, long currentTick) {
+        Location location = player.getLocation(sampleLocation);
+        state.sampleMovement(location.getWorld() != null ? location.getWorld().getUID() : null,
+            location.getX(), location.getY(), location.getZ(), location.getYaw(), location.getPitch(),
+            settings.getAntiAfk().minMovement(), currentTick);
+    }
+
+    private boolean isAfk(PlayerEnchantState state, EnchantTrigger trigger, long currentTick) {
+        if (!settings.getAntiAfk().enabled()
+            || !settings.getAntiAfk().triggers().contains(trigger)
+            || !state.isIdle(settings.getAntiAfk().windowTicks(), currentTick)) {
+            return false;
+        }
+        metrics.recordAfkSkipped();
+        trace.record(state.getPlayerId(), currentTick, trigger, state.getRegistryVersion(), -1, -1,
+            TraceBuffer.Outcome.AFK, Double.NaN, Double.NaN, Double.NaN);
+        return true;
+    }
+
+    /**
+     * Every tracked player moves between the same two versions after a reload, so the last remap is
+     * reused.
+     */
+    private EnchantRegistry.Remap remapFor(EnchantRegistry.Snapshot from, EnchantRegistry.Snapshot to) {
+        if (from == null) {
+            return null;
         }
-        player.sendActionBar("§7[CE] " + definition.getName() + " §8" + trigger + " §7" + reason);
+        EnchantRegistry.Remap remap = lastRemap;
+        if (remap == null || remap.getFromVersion() != from.getVersion() || remap.getToVersion() != to.getVersion()) {
+            remap = to.remapFrom(from);
+            lastRemap = remap;
+        }
+        return remap;
+    }
+
+    private static EnchantLevels remapLevels(EnchantLevels levels, EnchantRegistry.Remap remap) {
+        int[] ordinals = new int[levels.size()];
+        int[] remapped = new int[levels.size()];
+        int size = 0;
+        for (int i = 0; i < levels.size(); i++) {
+            int ordinal = remap.ordinal(levels.ordinal(i));
+            if (ordinal >= 0) {
+                ordinals[size] = ordinal;
+                remapped[size++] = levels.level(i);
+            }
+        }
+        return EnchantLevels.of(ordinals, remapped, size);
+    }
+
+    private static TokenBucket newGlobalProcBucket(PluginSettings settings) {
+        double rate = settings.getLimiter().globalMaxProcsPerSecond();
+        return rate > 0 ? new TokenBucket(rate) : null;
     }
 
-    private PlayerSnapshot snapshotPlayer(Player player) {
-        PlayerEnchantState state = playerState.computeIfAbsent(player.getUniqueId(), id -> new PlayerEnchantState());
-        Map<String, List<EnchantLevelSlot>> enchantLevels = new HashMap<>();
-        for (Map.Entry<String, List<EnchantLevelSlot>> entry : state.getEquippedEnchantLevels().entrySet()) {
-            enchantLevels.put(entry.getKey(), new ArrayList<>(entry.getValue()));
+    private static TokenBucket newPlayerProcBucket(PluginSettings settings) {
+        double rate = settings.getLimiter().maxProcsPerSecond();
+        return rate > 0 ? new TokenBucket(rate) : null;
+    }
+
+    private boolean hasProcBudget(PlayerEnchantState state, long currentTick) {
+        TokenBucket bucket = state.getProcBucket();
+        return (bucket == null || bucket.hasToken(currentTick))
+            && (globalProcBucket == null || globalProcBucket.hasToken(currentTick));
+    }
+
+    /**
+     * Takes one proc from the player and global buckets after {@link #hasProcBudget} passed.
+     * Passive effects are not rate limited.
+     */
+    private void acquireProc(PlayerEnchantState state, long currentTick) {
+        TokenBucket bucket = state.getProcBucket();
+        if (bucket != null) {
+            bucket.tryAcquire(currentTick);
+        }
+        if (globalProcBucket != null) {
+            globalProcBucket.tryAcquire(currentTick);
         }
-        return new PlayerSnapshot(
-            player.getUniqueId(),
-            enchantLevels,
-            state.getCooldownSnapshot(),
-            state.getHeatSnapshot(),
-            debugEnabled.getOrDefault(player.getUniqueId(), false)
-        );
     }
 
-    private record PlayerSnapshot(
-        UUID playerId,
-        Map<String, List<EnchantLevelSlot>> enchantLevels,
-        Map<String, Long> cooldowns,
-        Map<String, Double> heat,
-        boolean debugEnabled
-    ) {
+    private int capAmplifier(int amplifier) {
+        int maxStacks = settings.getLimiter().maxEffectStacks();
+        return maxStacks > 0 ? Math.min(amplifier, maxStacks - 1) : amplifier;
     }
 
-    private record EffectApplication(EnchantDefinition definition, EffectSpec effect) {
+    private int passiveBucketCount(int players) {
+        int perBucket = Math.max(1, settings.getRefresh().passivePlayersPerBucket());
+        int buckets = (players + perBucket - 1) / perBucket;
+        return Math.max(1, Math.min(PASSIVE_INTERVAL_TICKS, buckets));
     }
 
-    private record DebugRecord(EnchantDefinition definition, EnchantTrigger trigger, String reason) {
+    private record TriggerKey(UUID playerId, EnchantTrigger trigger) {
     }
 
-    private record TriggerComputation(
-        UUID playerId,
-        UUID targetId,
-        EnchantTrigger trigger,
-        List<EffectApplication> applications,
-        List<DebugRecord> debugRecords
-    ) {
+    /**
+     * One effect application waiting in an {@link EffectBatch}, with what is needed to charge it.
+     */
+    private record Proc(TriggerComputation result, EffectApplication application, PlayerEnchantState state,
+                        boolean countProc, EnchantProfiler.Session profile) {
     }
 
     private record EnchantDisplay(String name, int level, List<String> description) {
@@ -0,0 +1,107 @@
+package com.moonrein.moonEnchant.service;
+
+import com.moonrein.moonEnchant.util.EnchantLevels;
+import java.util.Arrays;
+import org.bukkit.inventory.EquipmentSlot;
+
+/**
+ * Immutable view of the enchants a player has equipped, keyed by registry ordinal.
+ * Per-slot levels live in one flat array ({@code index * SLOT_COUNT + slot.ordinal()}).
+ */
+public final class EquippedEnchants {
+    public static final EquippedEnchants EMPTY = new EquippedEnchants(new int[0], new int[0], new int[0]);
+
+    private static final int SLOT_COUNT = EquipmentSlot.values().length;
+
+    private final int[] ordinals;
+    private final int[] maxLevels;
+    private final int[] slotLevels;
+
+    private EquippedEnchants(int[] ordinals, int[] maxLevels, int[] slotLevels) {
+        this.ordinals = ordinals;
+        this.maxLevels = maxLevels;
+        this.slotLevels = slotLevels;
+    }
+
+    public int size() {
+        return ordinals.length;
+    }
+
+    public boolean isEmpty() {
+        return ordinals.length == 0;
+    }
+
+    public int ordinal(int index) {
+        return ordinals[index];
+    }
+
+    public int maxLevel(int index) {
+        return maxLevels[index];
+    }
+
+    public int level(int index, EquipmentSlot slot) {
+        return slotLevels[index * SLOT_COUNT + slot.ordinal()];
+    }
+
+    public int indexOf(int ordinal) {
+        for (int i = 0; i < ordinals.length; i++) {
+            if (ordinals[i] == ordinal) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static final class Builder {
+        private int[] ordinals = new int[8];
+        private int[] maxLevels = new int[8];
+        private int[] slotLevels = new int[8 * SLOT_COUNT];
+        private int size;
+
+        private Builder() {
+        }
+
+        public Builder add(EquipmentSlot slot, EnchantLevels levels) {
+            for (int i = 0; i < levels.size(); i++) {
+                add(slot, levels.ordinal(i), levels.level(i));
+            }
+            return this;
+        }
+
+        public Builder add(EquipmentSlot slot, int ordinal, int level) {
+            int index = -1;
+            for (int i = 0; i < size; i++) {
+                if (ordinals[i] == ordinal) {
+                    index = i;
+                    break;
+                }
+            }
+            if (index < 0) {
+                if (size == ordinals.length) {
+                    ordinals = Arrays.copyOf(ordinals, size * 2);
+                    maxLevels = Arrays.copyOf(maxLevels, size * 2);
+                    slotLevels = Arrays.copyOf(slotLevels, size * 2 * SLOT_COUNT);
+                }
+                index = size++;
+                ordinals[index] = ordinal;
+                maxLevels[index] = level;
+            } else {
+                maxLevels[index] = Math.max(maxLevels[index], level);
+            }
+            slotLevels[index * SLOT_COUNT + slot.ordinal()] = level;
+            return this;
+        }
+
+        public EquippedEnchants build() {
+            if (size == 0) {
+                return EMPTY;
+            }
+            return new EquippedEnchants(Arrays.copyOf(ordinals, size), Arrays.copyOf(maxLevels, size),
+                Arrays.copyOf(slotLevels, size * SLOT_COUNT));
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.moonrein.moonEnchant.service;
+
+import com.moonrein.moonEnchant.enchant.EnchantRegistry;
+import java.util.Arrays;
+
+/**
+ * Per-enchant heat of one player as parallel arrays of registry ordinal, value and the server tick
+ * it was last written, holding only enchants that still have heat. Decay is linear and evaluated on
+ * read, so heat never needs a cooling pass:
+ * {@code heat(now) = max(0, value - decayPerTick * (now - updatedAt))}.
+ * <p>
+ * Immutable like {@link CooldownTable}: every write returns a new table and drops entries that have
+ * fully cooled, so a {@link PlayerSnapshot} shares the table by reference.
+ */
+public final class HeatTable {
+    public static final HeatTable EMPTY = new HeatTable(new int[0], new double[0], new long[0], new double[0]);
+
+    private final int[] ordinals;
+    private final double[] values;
+    private final long[] updatedAt;
+    // Decay rate each entry was written with, only used to drop entries once they have fully cooled.
+    private final double[] decayPerSecond;
+
+    private HeatTable(int[] ordinals, double[] values, long[] updatedAt, double[] decayPerSecond) {
+        this.ordinals = ordinals;
+        this.values = values;
+        this.updatedAt = updatedAt;
+        this.decayPerSecond = decayPerSecond;
+    }
+
+    /**
+     * @param decayPerSecond heat removed per second, as configured by {@code heat.decay-per-second}
+     */
+    public double get(int ordinal, double decayPerSecond, long currentTick) {
+        for (int i = 0; i < ordinals.length; i++) {
+            if (ordinals[i] == ordinal) {
+                return decayed(values[i], updatedAt[i], decayPerSecond, currentTick);
+            }
+        }
+        return 0.0;
+    }
+
+    /**
+     * Returns a table with the decay accrued so far settled and {@code amount} added on top.
+     */
+    public HeatTable with(int ordinal, double amount, double decayPerSecond, long currentTick) {
+        if (ordinal < 0) {
+            return this;
+        }
+        double value = get(ordinal, decayPerSecond, currentTick) + amount;
+        int kept = 0;
+        for (int i = 0; i < ordinals.length; i++) {
+            if (ordinals[i] != ordinal && isWarm(i, currentTick)) {
+                kept++;
+            }
+        }
+        int[] nextOrdinals = new int[kept + 1];
+        double[] nextValues = new double[kept + 1];
+        long[] nextUpdatedAt = new long[kept + 1];
+        double[] nextDecay = new double[kept + 1];
+        int write = 0;
+        for (int i = 0; i < ordinals.length; i++) {
+            if (ordinals[i] != ordinal && isWarm(i, currentTick)) {
+                nextOrdinals[write] = ordinals[i];
+                nextValues[write] = values[i];
+                nextUpdatedAt[write] = updatedAt[i];
+                nextDecay[write++] = this.decayPerSecond[i];
+            }
+        }
+        nextOrdinals[write] = ordinal;
+        nextValues[write] = value;
+        nextUpdatedAt[write] = currentTick;
+        nextDecay[write] = decayPerSecond;
+        return new HeatTable(nextOrdinals, nextValues, nextUpdatedAt, nextDecay);
+    }
+
+    /**
+     * Moves heat to the ordinals of a new registry version, dropping heat of removed enchants. Decay
+     * is not settled, so heat keeps cooling from when it was last written.
+     */
+    public HeatTable remap(EnchantRegistry.Remap remap) {
+        int[] nextOrdinals = new int[ordinals.length];
+        int size = 0;
+        for (int i = 0; i < ordinals.length; i++) {
+            int target = remap.ordinal(ordinals[i]);
+            if (target >= 0) {
+                nextOrdinals[size++] = target;
+            }
+        }
+        if (size == 0) {
+            return EMPTY;
+        }
+        double[] nextValues = new double[size];
+        long[] nextUpdatedAt = new long[size];
+        double[] nextDecay = new double[size];
+        int write = 0;
+        for (int i = 0; i < ordinals.length; i++) {
+            if (remap.ordinal(ordinals[i]) >= 0) {
+                nextValues[write] = values[i];
+                nextUpdatedAt[write] = updatedAt[i];
+                nextDecay[write++] = decayPerSecond[i];
+            }
+        }
+        return new HeatTable(Arrays.copyOf(nextOrdinals, size), nextValues, nextUpdatedAt, nextDecay);
+    }
+
+    public int size() {
+        return ordinals.length;
+    }
+
+    private boolean isWarm(int index, long currentTick) {
+        return decayed(values[index], updatedAt[index], decayPerSecond[index], currentTick) > 0;
+    }
+
+    private static double decayed(double value, long updatedAt, double decayPerSecond, long currentTick) {
+        if (value <= 0 || decayPerSecond <= 0) {
+            return Math.max(0.0, value);
+        }
+        long elapsed = Math.max(0L, currentTick - updatedAt);
+        return Math.max(0.0, value - (decayPerSecond / 20.0) * elapsed);
+    }
+}
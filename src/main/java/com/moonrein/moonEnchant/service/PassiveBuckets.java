@@ -0,0 +1,68 @@
+package com.moonrein.moonEnchant.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.bukkit.entity.Player;
+
+/**
+ * Tracked players partitioned into passive-tick buckets by UUID hash, so a passive tick only walks
+ * the players of its own bucket. Players are added once their enchant state exists and removed on
+ * quit; changing the bucket count redistributes everyone once. Main thread only.
+ */
+public class PassiveBuckets {
+    private final Map<UUID, Player> players = new HashMap<>();
+    private List<List<Player>> buckets = List.of(new ArrayList<>());
+
+    public void add(Player player) {
+        if (players.putIfAbsent(player.getUniqueId(), player) == null) {
+            bucketOf(player.getUniqueId()).add(player);
+        }
+    }
+
+    public void remove(UUID playerId) {
+        Player player = players.remove(playerId);
+        if (player != null) {
+            bucketOf(playerId).remove(player);
+        }
+    }
+
+    /**
+     * Redistributes every player over {@code count} buckets; does nothing if the count is unchanged.
+     */
+    public void resize(int count) {
+        if (count == buckets.size()) {
+            return;
+        }
+        List<List<Player>> resized = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            resized.add(new ArrayList<>());
+        }
+        buckets = resized;
+        for (Player player : players.values()) {
+            bucketOf(player.getUniqueId()).add(player);
+        }
+    }
+
+    /**
+     * Players in {@code bucket}, or an empty list past the current bucket count. The list is live
+     * and must not be modified or kept past the current tick.
+     */
+    public List<Player> get(int bucket) {
+        return bucket < buckets.size() ? buckets.get(bucket) : List.of();
+    }
+
+    public int bucketCount() {
+        return buckets.size();
+    }
+
+    public int playerCount() {
+        return players.size();
+    }
+
+    private List<Player> bucketOf(UUID playerId) {
+        return buckets.get(Math.floorMod(playerId.hashCode(), buckets.size()));
+    }
+}
@@ -1,62 +1,218 @@
 package com.moonrein.moonEnchant.service;
 
+import com.moonrein.moonEnchant.enchant.EnchantRegistry;
+import com.moonrein.moonEnchant.model.AttributeModifierSpec;
 import com.moonrein.moonEnchant.model.EnchantDefinition;
+import com.moonrein.moonEnchant.model.EnchantTrigger;
+import com.moonrein.moonEnchant.util.EnchantLevels;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
+import org.bukkit.inventory.EquipmentSlot;
 
+/**
+ * Mutable per-player state with a single writer: only the main thread mutates it or calls
+ * {@link #getSnapshot()}. Worker threads only see the immutable {@link PlayerSnapshot} handed to
+ * them. The snapshot is rebuilt lazily, on the first request after equipment, cooldowns or heat
+ * changed, and shared by reference otherwise. Cooldown and heat tables are immutable and go into
+ * the snapshot by reference, so a rebuild allocates only the snapshot itself.
+ */
 public class PlayerEnchantState {
-    private final Map<String, Long> cooldowns = new HashMap<>();
-    private final Map<String, Double> heat = new HashMap<>();
-    private Map<String, java.util.List<EnchantLevelSlot>> equippedEnchantLevels = new HashMap<>();
+    private final UUID playerId;
+    private final EnchantLevels[] slotEnchants = new EnchantLevels[EquipmentSlot.values().length];
+    private final Map<UUID, AppliedModifier> appliedModifiers = new HashMap<>();
+    private TokenBucket procBucket;
+    private EquippedEnchants equippedEnchants = EquippedEnchants.EMPTY;
+    private int triggerMask;
+    private int[] triggerEffectCounts = new int[EnchantTrigger.values().length];
+    private EnchantRegistry.Snapshot registry;
+    private CooldownTable cooldowns = CooldownTable.EMPTY;
+    private HeatTable heat = HeatTable.EMPTY;
+    private UUID sampledWorld;
+    private double sampledX;
+    private double sampledY;
+    private double sampledZ;
+    private float sampledYaw;
+    private float sampledPitch;
+    private long lastActiveTick;
+    private long version;
+    private boolean dirty;
+    private PlayerSnapshot snapshot;
 
-    public Map<String, java.util.List<EnchantLevelSlot>> getEquippedEnchantLevels() {
-        return equippedEnchantLevels;
+    /**
+     * @param procBucket per-player proc rate limit, or {@code null} for none
+     */
+    public PlayerEnchantState(UUID playerId, TokenBucket procBucket) {
+        this.playerId = playerId;
+        this.procBucket = procBucket;
+        Arrays.fill(slotEnchants, EnchantLevels.EMPTY);
+        this.snapshot = new PlayerSnapshot(playerId, 0L, getRegistryVersion(), equippedEnchants,
+            CooldownTable.EMPTY, HeatTable.EMPTY);
     }
 
-    public void setEquippedEnchantLevels(Map<String, java.util.List<EnchantLevelSlot>> equippedEnchantLevels) {
-        this.equippedEnchantLevels = equippedEnchantLevels;
+    public UUID getPlayerId() {
+        return playerId;
     }
 
-    public Map<String, Long> getCooldownSnapshot() {
-        return new HashMap<>(cooldowns);
+    /**
+     * Returns the current snapshot, publishing a new one first if the state changed since the last
+     * publish. Main thread only.
+     */
+    public PlayerSnapshot getSnapshot() {
+        if (dirty) {
+            dirty = false;
+            snapshot = new PlayerSnapshot(playerId, ++version, getRegistryVersion(), equippedEnchants, cooldowns,
+                heat);
+        }
+        return snapshot;
+    }
+
+    public EnchantLevels getSlotEnchants(EquipmentSlot slot) {
+        return slotEnchants[slot.ordinal()];
+    }
+
+    /**
+     * Stores the enchants decoded from one equipment slot.
+     *
+     * @return whether the slot contents differ from what was stored before
+     */
+    public boolean setSlotEnchants(EquipmentSlot slot, EnchantLevels levels) {
+        EnchantLevels previous = slotEnchants[slot.ordinal()];
+        slotEnchants[slot.ordinal()] = levels;
+        return !previous.equals(levels);
+    }
+
+    public EquippedEnchants getEquippedEnchants() {
+        return equippedEnchants;
+    }
+
+    /**
+     * @param triggerMask  bit {@code 1 << trigger.ordinal()} set for every trigger with at least one effect
+     * @param effectCounts number of equipped effects per trigger, indexed by trigger ordinal
+     */
+    public void setEquippedEnchants(EquippedEnchants equippedEnchants, int triggerMask, int[] effectCounts) {
+        this.equippedEnchants = equippedEnchants;
+        this.triggerMask = triggerMask;
+        this.triggerEffectCounts = effectCounts;
+        dirty = true;
+    }
+
+    public boolean canFire(EnchantTrigger trigger) {
+        return (triggerMask & (1 << trigger.ordinal())) != 0;
+    }
+
+    public int getEffectCount(EnchantTrigger trigger) {
+        return triggerEffectCounts[trigger.ordinal()];
+    }
+
+    /**
+     * Attribute modifiers currently applied to the player by this plugin, keyed by modifier UUID.
+     */
+    public Map<UUID, AppliedModifier> getAppliedModifiers() {
+        return appliedModifiers;
     }
 
-    public Map<String, Double> getHeatSnapshot() {
-        return new HashMap<>(heat);
+    /**
+     * Records a position sample and marks the player active if they moved at least
+     * {@code minMovement} blocks, turned their head, or changed world since the previous sample.
+     */
+    public void sampleMovement(UUID world, double x, double y, double z, float yaw, float pitch,
+                               double minMovement, long currentTick) {
+        double dx = x - sampledX;
+        double dy = y - sampledY;
+        double dz = z - sampledZ;
+        if (sampledWorld == null
+            || !sampledWorld.equals(world)
+            || dx * dx + dy * dy + dz * dz >= minMovement * minMovement
+            || yaw != sampledYaw
+            || pitch != sampledPitch) {
+            lastActiveTick = currentTick;
+        }
+        sampledWorld = world;
+        sampledX = x;
+        sampledY = y;
+        sampledZ = z;
+        sampledYaw = yaw;
+        sampledPitch = pitch;
     }
 
-    public boolean isOnCooldown(String key) {
-        Long until = cooldowns.get(key);
-        return until != null && until > System.currentTimeMillis();
+    /**
+     * @return whether the player has been sampled and has not moved for longer than {@code windowTicks}
+     */
+    public boolean isIdle(long windowTicks, long currentTick) {
+        return sampledWorld != null && currentTick - lastActiveTick > windowTicks;
     }
 
-    public void setCooldown(String enchantId, String effectKey, long cooldownTicks) {
+    public TokenBucket getProcBucket() {
+        return procBucket;
+    }
+
+    public void setProcBucket(TokenBucket procBucket) {
+        this.procBucket = procBucket;
+    }
+
+    /**
+     * @return the version of the registry the state is bound to, or -1 before the first binding
+     */
+    public int getRegistryVersion() {
+        return registry != null ? registry.getVersion() : -1;
+    }
+
+    /**
+     * @return the registry the state is bound to, or {@code null} before the first binding
+     */
+    public EnchantRegistry.Snapshot getRegistry() {
+        return registry;
+    }
+
+    /**
+     * Binds state keyed by registry ordinals or effect slots to a new registry version. Cooldowns and
+     * heat are carried over through {@code remap}, or dropped if it is {@code null}.
+     *
+     * @param remap translation from the currently bound registry to {@code registry}
+     */
+    public void bindRegistry(EnchantRegistry.Snapshot registry, EnchantRegistry.Remap remap, long currentTick) {
+        this.registry = registry;
+        cooldowns = remap != null ? cooldowns.remap(remap, currentTick) : CooldownTable.EMPTY;
+        heat = remap != null ? heat.remap(remap) : HeatTable.EMPTY;
+        dirty = true;
+    }
+
+    public boolean isOnCooldown(int cooldownSlot, long currentTick) {
+        return cooldowns.isOnCooldown(cooldownSlot, currentTick);
+    }
+
+    public long getRemainingCooldown(int cooldownSlot, long currentTick) {
+        return cooldowns.getRemainingTicks(cooldownSlot, currentTick);
+    }
+
+    public void setCooldown(int cooldownSlot, long cooldownTicks, long currentTick) {
         if (cooldownTicks <= 0) {
             return;
         }
-        long until = System.currentTimeMillis() + (cooldownTicks * 50L);
-        cooldowns.put(enchantId + ":" + effectKey, until);
+        cooldowns = cooldowns.with(cooldownSlot, currentTick + cooldownTicks, currentTick);
+        dirty = true;
     }
 
-    public double getHeat(String enchantId) {
-        return heat.getOrDefault(enchantId, 0.0);
+    public double getHeat(int ordinal, EnchantDefinition definition, long currentTick) {
+        return heat.get(ordinal, definition.getHeatDecayPerSecond(), currentTick);
     }
 
-    public void addHeat(EnchantDefinition definition) {
+    public void addHeat(int ordinal, EnchantDefinition definition, long currentTick) {
         if (definition.getHeatPerProc() <= 0) {
             return;
         }
-        heat.merge(definition.getId(), definition.getHeatPerProc(), Double::sum);
+        heat = heat.with(ordinal, definition.getHeatPerProc(), definition.getHeatDecayPerSecond(), currentTick);
+        dirty = true;
     }
 
-    public void coolHeat(EnchantDefinition definition) {
-        double decayPerSecond = definition.getHeatDecayPerSecond();
-        if (decayPerSecond <= 0) {
-            return;
+    public record AppliedModifier(AttributeModifierSpec spec, double amount) {
+        public boolean matches(AppliedModifier other) {
+            return Double.compare(amount, other.amount) == 0
+                && spec.getAttribute().equals(other.spec.getAttribute())
+                && spec.getOperation() == other.spec.getOperation()
+                && spec.getSlot() == other.spec.getSlot();
         }
-        heat.computeIfPresent(definition.getId(), (key, value) -> {
-            double next = value - (decayPerSecond / 20.0);
-            return next <= 0 ? 0.0 : next;
-        });
     }
 }
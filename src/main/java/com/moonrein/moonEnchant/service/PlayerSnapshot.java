@@ -0,0 +1,17 @@
+package com.moonrein.moonEnchant.service;
+
+import java.util.UUID;
+
+/**
+ * Immutable view of a player's enchant state, published by {@link PlayerEnchantState} and shared
+ * by reference between trigger evaluations until the state changes again.
+ */
+public record PlayerSnapshot(
+    UUID playerId,
+    long version,
+    int registryVersion,
+    EquippedEnchants equipped,
+    CooldownTable cooldowns,
+    HeatTable heat
+) {
+}
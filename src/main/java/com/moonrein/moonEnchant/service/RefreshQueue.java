@@ -0,0 +1,68 @@
+package com.moonrein.moonEnchant.service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import org.bukkit.inventory.EquipmentSlot;
+
+/**
+ * Per-tick dirty set of pending equipment refreshes. Repeated requests for the same player
+ * within a tick merge into one entry; entries drain in request order. Main thread only.
+ */
+public class RefreshQueue {
+    /** Mask bit requesting a full refresh including the stale-modifier sweep. */
+    public static final int FULL_REFRESH = 1 << 31;
+
+    private final Map<UUID, Integer> pending = new LinkedHashMap<>();
+
+    public static int slotMask(Set<EquipmentSlot> slots) {
+        int mask = 0;
+        for (EquipmentSlot slot : slots) {
+            mask |= slotBit(slot);
+        }
+        return mask;
+    }
+
+    public static int slotBit(EquipmentSlot slot) {
+        return 1 << slot.ordinal();
+    }
+
+    public void mark(UUID playerId, int mask) {
+        if (mask == 0) {
+            return;
+        }
+        pending.merge(playerId, mask, (left, right) -> left | right);
+    }
+
+    public void remove(UUID playerId) {
+        pending.remove(playerId);
+    }
+
+    public int size() {
+        return pending.size();
+    }
+
+    /**
+     * Hands up to {@code budget} entries to the sink, oldest first. A budget of 0 drains everything.
+     *
+     * @return the number of entries drained
+     */
+    public int drain(int budget, Sink sink) {
+        int drained = 0;
+        Iterator<Map.Entry<UUID, Integer>> iterator = pending.entrySet().iterator();
+        while (iterator.hasNext() && (budget <= 0 || drained < budget)) {
+            Map.Entry<UUID, Integer> entry = iterator.next();
+            iterator.remove();
+            sink.refresh(entry.getKey(), entry.getValue());
+            drained++;
+        }
+        return drained;
+    }
+
+    @FunctionalInterface
+    public interface Sink {
+        void refresh(UUID playerId, int mask);
+    }
+}
@@ -0,0 +1,45 @@
+package com.moonrein.moonEnchant.service;
+
+/**
+ * Token bucket refilled continuously at a per-second rate and measured in server ticks. Holds at
+ * most one second's worth of tokens, so a burst can spend at most the configured rate at once.
+ * Not thread-safe; owned by the main thread like the rest of the apply path.
+ */
+public final class TokenBucket {
+    private final double tokensPerTick;
+    private final double capacity;
+    private double tokens;
+    private long lastRefillTick = Long.MIN_VALUE;
+
+    public TokenBucket(double tokensPerSecond) {
+        this.tokensPerTick = tokensPerSecond / 20.0;
+        this.capacity = Math.max(1.0, tokensPerSecond);
+        this.tokens = capacity;
+    }
+
+    /**
+     * @return whether at least one token is available, without taking it
+     */
+    public boolean hasToken(long currentTick) {
+        refill(currentTick);
+        return tokens >= 1.0;
+    }
+
+    /**
+     * Takes a token if one is available.
+     */
+    public boolean tryAcquire(long currentTick) {
+        if (!hasToken(currentTick)) {
+            return false;
+        }
+        tokens -= 1.0;
+        return true;
+    }
+
+    private void refill(long currentTick) {
+        if (lastRefillTick != Long.MIN_VALUE && currentTick > lastRefillTick) {
+            tokens = Math.min(capacity, tokens + (currentTick - lastRefillTick) * tokensPerTick);
+        }
+        lastRefillTick = currentTick;
+    }
+}
@@ -0,0 +1,166 @@
+package com.moonrein.moonEnchant.service;
+
+import com.moonrein.moonEnchant.enchant.EnchantRegistry;
+import com.moonrein.moonEnchant.enchant.TriggerDispatchTable;
+import com.moonrein.moonEnchant.enchant.TriggerDispatchTable.CompiledTriggerEffects;
+import com.moonrein.moonEnchant.metrics.EnchantMetrics;
+import com.moonrein.moonEnchant.metrics.EnchantProfiler;
+import com.moonrein.moonEnchant.metrics.TraceBuffer;
+import com.moonrein.moonEnchant.model.EffectSpec;
+import com.moonrein.moonEnchant.model.EnchantDefinition;
+import com.moonrein.moonEnchant.model.EnchantTrigger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decides which equipped effects fire for a trigger. Works purely on a {@link PlayerSnapshot} and
+ * the registry, never on live Bukkit objects, so it runs on worker threads and outside a server.
+ */
+public class TriggerEvaluator {
+    private final EnchantRegistry registry;
+    private final EnchantMetrics metrics;
+    private final TraceBuffer trace;
+
+    public TriggerEvaluator(EnchantRegistry registry, EnchantMetrics metrics, TraceBuffer trace) {
+        this.registry = registry;
+        this.metrics = metrics;
+        this.trace = trace;
+    }
+
+    /**
+     * @param startedAtNanos {@link System#nanoTime()} when the trigger was raised, carried through
+     *                       so the apply side can measure end-to-end latency
+     */
+    public TriggerComputation evaluate(PlayerSnapshot snapshot, EnchantTrigger trigger, UUID targetId,
+                                       long currentTick, long startedAtNanos) {
+        List<EffectApplication> applications = new ArrayList<>();
+        EnchantRegistry.Snapshot current = registry.getSnapshot();
+        if (current.getVersion() != snapshot.registryVersion()) {
+            // Equipped ordinals predate a reload; nothing fires until the player is re-resolved.
+            return new TriggerComputation(snapshot.playerId(), snapshot.registryVersion(), targetId, trigger,
+                applications, startedAtNanos, System.nanoTime());
+        }
+        TriggerDispatchTable dispatchTable = current.getDispatchTable();
+        EquippedEnchants equipped = snapshot.equipped();
+        EnchantProfiler.Session profile = metrics.getProfiler().sample(current.getVersion());
+        for (int i = 0; i < equipped.size(); i++) {
+            int ordinal = equipped.ordinal(i);
+            CompiledTriggerEffects compiled = dispatchTable.get(trigger, ordinal);
+            if (compiled == null) {
+                continue;
+            }
+            EnchantDefinition definition = compiled.getDefinition();
+            int slotBase = dispatchTable.getEffectSlotBase(ordinal);
+            EffectSpec[] effects = compiled.effectsFor(equipped.maxLevel(i));
+            int[] effectSlots = compiled.effectSlotsFor(equipped.maxLevel(i));
+            for (int e = 0; e < effects.length; e++) {
+                EffectSpec effect = effects[e];
+                long effectStartedAt = profile != null ? System.nanoTime() : 0L;
+                try {
+                    int effectIndex = effectSlots[e] - slotBase;
+                    int cooldownSlot = dispatchTable.getCooldownSlot(effectSlots[e]);
+                    if (snapshot.cooldowns().isOnCooldown(cooldownSlot, currentTick)) {
+                        metrics.recordCooldownRejection();
+                        trace.record(snapshot.playerId(), currentTick, trigger, current.getVersion(), ordinal,
+                            effectIndex, TraceBuffer.Outcome.COOLDOWN, Double.NaN, effect.getChance(), Double.NaN);
+                        continue;
+                    }
+                    double heatFactor = heatFactor(snapshot, ordinal, definition, currentTick);
+                    double chance = effect.getChance() * heatFactor;
+                    double roll = ThreadLocalRandom.current().nextDouble();
+                    if (roll > chance) {
+                        metrics.recordChanceRejection();
+                        trace.record(snapshot.playerId(), currentTick, trigger, current.getVersion(), ordinal,
+                            effectIndex, TraceBuffer.Outcome.CHANCE, roll, chance, heatFactor);
+                        continue;
+                    }
+                    // The apply side traces the final outcome, which may still be a rate limit.
+                    applications.add(new EffectApplication(ordinal, definition, effect, effectSlots[e], cooldownSlot,
+                        effectIndex, roll, chance, heatFactor));
+                } finally {
+                    if (profile != null) {
+                        profile.recordEvaluate(effectSlots[e], System.nanoTime() - effectStartedAt);
+                    }
+                }
+            }
+        }
+        return new TriggerComputation(snapshot.playerId(), snapshot.registryVersion(), targetId, trigger,
+            applications, startedAtNanos, System.nanoTime());
+    }
+
+    /**
+     * Multiplier applied to an effect's chance as the enchant heats up, from 1 down to 0.2.
+     */
+    private double heatFactor(PlayerSnapshot snapshot, int ordinal, EnchantDefinition definition, long currentTick) {
+        double max = definition.getHeatMax();
+        if (max <= 0) {
+            return 1.0;
+        }
+        double heat = snapshot.heat().get(ordinal, definition.getHeatDecayPerSecond(), currentTick);
+        return Math.max(0.2, 1.0 - (heat / max));
+    }
+
+    /**
+     * An effect that passed its cooldown and chance checks, with the roll kept for tracing.
+     *
+     * @param cooldownSlot slot charged when the effect is sent, shared by the enchant's effects that
+     *                     apply the same potion
+     */
+    public record EffectApplication(int ordinal, EnchantDefinition definition, EffectSpec effect, int effectSlot,
+                                    int cooldownSlot, int effectIndex, double roll, double chance,
+                                    double heatFactor) {
+    }
+
+    public record TriggerComputation(
+        UUID playerId,
+        int registryVersion,
+        UUID targetId,
+        EnchantTrigger trigger,
+        List<EffectApplication> applications,
+        long startedAtNanos,
+        long evaluatedAtNanos
+    ) {
+        /**
+         * Results with equal keys belong to the same player, target and trigger and can be applied
+         * as one; see {@link #mergedWith}.
+         */
+        public Object mergeKey() {
+            return new MergeKey(playerId, targetId, trigger);
+        }
+
+        /**
+         * Combines this pending result with a later one with the same {@link #mergeKey}. A result from
+         * another registry version replaces this one, since ordinals do not carry across versions.
+         * Otherwise every effect slot keeps its later application, and the timestamps of this result
+         * are kept so latency still counts from the oldest event.
+         */
+        public TriggerComputation mergedWith(TriggerComputation later) {
+            if (later.registryVersion != registryVersion) {
+                return later;
+            }
+            List<EffectApplication> merged = new ArrayList<>(applications.size() + later.applications.size());
+            for (EffectApplication application : applications) {
+                if (!containsSlot(later.applications, application.effectSlot())) {
+                    merged.add(application);
+                }
+            }
+            merged.addAll(later.applications);
+            return new TriggerComputation(playerId, registryVersion, targetId, trigger, merged, startedAtNanos,
+                evaluatedAtNanos);
+        }
+
+        private static boolean containsSlot(List<EffectApplication> applications, int effectSlot) {
+            for (EffectApplication application : applications) {
+                if (application.effectSlot() == effectSlot) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private record MergeKey(UUID playerId, UUID targetId, EnchantTrigger trigger) {
+    }
+}
@@ -0,0 +1,93 @@
+package com.moonrein.moonEnchant.util;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded LRU cache from the raw stored enchant value of an item to its decoded form.
+ * Identical items share one entry, so repeated scans of unchanged equipment skip decoding.
+ * Entries are dropped whenever the registry version changes since they hold ordinals.
+ */
+public class DecodedEnchantCache {
+    private final int maxEntries;
+    private final Map<Object, EnchantLevels> entries;
+    private int registryVersion = -1;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public DecodedEnchantCache(int maxEntries) {
+        this.maxEntries = Math.max(1, maxEntries);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, EnchantLevels> eldest) {
+                if (size() > DecodedEnchantCache.this.maxEntries) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public static Object keyOf(byte[] data) {
+        return new BinaryKey(data);
+    }
+
+    public static Object keyOf(String legacy) {
+        return legacy;
+    }
+
+    public synchronized EnchantLevels get(Object key, int version) {
+        if (version != registryVersion) {
+            entries.clear();
+            registryVersion = version;
+        }
+        EnchantLevels cached = entries.get(key);
+        if (cached != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return cached;
+    }
+
+    public synchronized void put(Object key, int version, EnchantLevels levels) {
+        if (version != registryVersion) {
+            return;
+        }
+        entries.put(key, levels);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized Stats getStats() {
+        return new Stats(hits, misses, evictions, entries.size(), maxEntries);
+    }
+
+    public record Stats(long hits, long misses, long evictions, int size, int maxSize) {
+    }
+
+    private static final class BinaryKey {
+        private final byte[] data;
+        private final int hash;
+
+        private BinaryKey(byte[] data) {
+            this.data = data;
+            this.hash = Arrays.hashCode(data);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof BinaryKey key && key.hash == hash && Arrays.equals(key.data, data);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
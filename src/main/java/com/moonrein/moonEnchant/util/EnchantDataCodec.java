@@ -0,0 +1,256 @@
+package com.moonrein.moonEnchant.util;
+
+import com.moonrein.moonEnchant.enchant.EnchantIdTable;
+import com.moonrein.moonEnchant.enchant.EnchantRegistry;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Versioned binary encoding of item enchant data, plus the legacy {@code "id:level;id:level"} string.
+ * <p>
+ * Layout: {@code [version][varint count]} followed by {@code count} entries. In version 2 an entry
+ * is {@code [varint number][varint level]}, where the number comes from the persisted
+ * {@link EnchantIdTable}, so a typical entry takes two bytes. Number 0 marks an id without a
+ * number, which follows inline as {@code [varint idLength][id bytes (UTF-8)][varint level]}.
+ * Version 1 stored every entry inline and is still read. Registry ordinals are never stored
+ * because they are reassigned whenever the registry is reloaded.
+ */
+public final class EnchantDataCodec {
+    public static final byte VERSION = 2;
+    private static final byte VERSION_INLINE_IDS = 1;
+
+    private EnchantDataCodec() {
+    }
+
+    public static byte[] encode(Map<String, Integer> enchantments, EnchantIdTable ids) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(2 + enchantments.size() * 3);
+        out.write(VERSION);
+        writeVarInt(out, enchantments.size());
+        for (Map.Entry<String, Integer> entry : enchantments.entrySet()) {
+            int number = ids.getNumber(entry.getKey());
+            writeVarInt(out, number);
+            if (number == 0) {
+                byte[] id = entry.getKey().getBytes(StandardCharsets.UTF_8);
+                writeVarInt(out, id.length);
+                out.write(id, 0, id.length);
+            }
+            writeVarInt(out, entry.getValue());
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Decodes into registry ordinals, skipping enchants the registry does not know.
+     * Returns {@link EnchantLevels#EMPTY} for unknown versions or truncated data.
+     */
+    public static EnchantLevels decodeLevels(byte[] data, EnchantRegistry.Snapshot registry) {
+        Reader reader = new Reader(data);
+        int count = reader.header();
+        if (count <= 0) {
+            return EnchantLevels.EMPTY;
+        }
+        int[] ordinals = new int[count];
+        int[] levels = new int[count];
+        int size = 0;
+        for (int i = 0; i < count; i++) {
+            int number = reader.readNumber();
+            String id = number == 0 ? reader.readId() : null;
+            int level = reader.readVarInt();
+            if (reader.failed) {
+                return EnchantLevels.EMPTY;
+            }
+            int ordinal = number == 0 ? registry.getOrdinal(id) : registry.getOrdinalByNumber(number);
+            if (ordinal < 0) {
+                continue;
+            }
+            size = put(ordinals, levels, size, ordinal, level);
+        }
+        return EnchantLevels.of(ordinals, levels, size);
+    }
+
+    /**
+     * Decodes into enchant ids, skipping numbers missing from {@code ids}. Returns an empty map for
+     * unknown versions or truncated data.
+     */
+    public static Map<String, Integer> decodeMap(byte[] data, EnchantIdTable ids) {
+        Reader reader = new Reader(data);
+        int count = reader.header();
+        if (count <= 0) {
+            return Collections.emptyMap();
+        }
+        Map<String, Integer> result = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            int number = reader.readNumber();
+            String id = number == 0 ? reader.readId() : ids.getId(number);
+            int level = reader.readVarInt();
+            if (reader.failed) {
+                return Collections.emptyMap();
+            }
+            if (id != null) {
+                result.put(id, level);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Parses the legacy string format into registry ordinals, skipping malformed entries and
+     * enchants the registry does not know.
+     */
+    public static EnchantLevels decodeLegacyLevels(String raw, EnchantRegistry.Snapshot registry) {
+        if (raw == null || raw.isBlank()) {
+            return EnchantLevels.EMPTY;
+        }
+        int capacity = 1;
+        for (int i = 0; i < raw.length(); i++) {
+            if (raw.charAt(i) == ';') {
+                capacity++;
+            }
+        }
+        int[] ordinals = new int[capacity];
+        int[] levels = new int[capacity];
+        int size = 0;
+        int start = 0;
+        while (start < raw.length()) {
+            int end = raw.indexOf(';', start);
+            if (end < 0) {
+                end = raw.length();
+            }
+            int separator = raw.indexOf(':', start);
+            int extra = separator < 0 ? -1 : raw.indexOf(':', separator + 1);
+            if (separator > start && separator < end && (extra < 0 || extra >= end)) {
+                int ordinal = registry.getOrdinal(raw.substring(start, separator));
+                int level = parseLevel(raw, separator + 1, end);
+                if (ordinal >= 0 && level != Integer.MIN_VALUE) {
+                    size = put(ordinals, levels, size, ordinal, level);
+                }
+            }
+            start = end + 1;
+        }
+        return EnchantLevels.of(ordinals, levels, size);
+    }
+
+    /**
+     * Parses the legacy string format into enchant ids, skipping malformed entries.
+     */
+    public static Map<String, Integer> decodeLegacyMap(String raw) {
+        if (raw == null || raw.isBlank()) {
+            return Collections.emptyMap();
+        }
+        Map<String, Integer> result = new LinkedHashMap<>();
+        for (String entry : raw.split(";")) {
+            String[] parts = entry.split(":");
+            if (parts.length != 2) {
+                continue;
+            }
+            try {
+                int level = Integer.parseInt(parts[1]);
+                result.put(parts[0], level);
+            } catch (NumberFormatException ignored) {
+                continue;
+            }
+        }
+        return result;
+    }
+
+    private static int parseLevel(String raw, int start, int end) {
+        if (start >= end) {
+            return Integer.MIN_VALUE;
+        }
+        try {
+            return Integer.parseInt(raw, start, end, 10);
+        } catch (NumberFormatException ignored) {
+            return Integer.MIN_VALUE;
+        }
+    }
+
+    private static int put(int[] ordinals, int[] levels, int size, int ordinal, int level) {
+        for (int i = 0; i < size; i++) {
+            if (ordinals[i] == ordinal) {
+                levels[i] = level;
+                return size;
+            }
+        }
+        ordinals[size] = ordinal;
+        levels[size] = level;
+        return size + 1;
+    }
+
+    private static void writeVarInt(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static final class Reader {
+        private final byte[] data;
+        private int position;
+        private boolean inlineIds;
+        private boolean failed;
+
+        private Reader(byte[] data) {
+            this.data = data;
+        }
+
+        private int header() {
+            if (data == null || data.length < 2 || (data[0] != VERSION && data[0] != VERSION_INLINE_IDS)) {
+                return 0;
+            }
+            inlineIds = data[0] == VERSION_INLINE_IDS;
+            position = 1;
+            int count = readVarInt();
+            // Every entry takes at least two bytes, which bounds the arrays sized from count.
+            if (failed || count > (data.length - position) / 2) {
+                return 0;
+            }
+            return count;
+        }
+
+        /**
+         * Reads an entry's enchant number; 0 means the id follows inline.
+         */
+        private int readNumber() {
+            if (inlineIds) {
+                return 0;
+            }
+            int number = readVarInt();
+            if (number < 0) {
+                failed = true;
+            }
+            return number;
+        }
+
+        private String readId() {
+            int length = readVarInt();
+            if (failed || length < 0 || length > data.length - position) {
+                failed = true;
+                return null;
+            }
+            String id = new String(data, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return id;
+        }
+
+        private int readVarInt() {
+            int value = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                if (position >= data.length) {
+                    failed = true;
+                    return 0;
+                }
+                byte current = data[position++];
+                value |= (current & 0x7F) << shift;
+                if ((current & 0x80) == 0) {
+                    return value;
+                }
+            }
+            failed = true;
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.moonrein.moonEnchant.util;
+
+import java.util.Arrays;
+
+/**
+ * Compact, immutable ordinal -> level set decoded from a single item.
+ * Ordinals refer to {@link com.moonrein.moonEnchant.enchant.EnchantRegistry} and are
+ * stored in parallel primitive arrays to keep scans free of boxing and hashing.
+ */
+public final class EnchantLevels {
+    public static final EnchantLevels EMPTY = new EnchantLevels(new int[0], new int[0]);
+
+    private final int[] ordinals;
+    private final int[] levels;
+
+    private EnchantLevels(int[] ordinals, int[] levels) {
+        this.ordinals = ordinals;
+        this.levels = levels;
+    }
+
+    public static EnchantLevels of(int[] ordinals, int[] levels, int size) {
+        if (size == 0) {
+            return EMPTY;
+        }
+        return new EnchantLevels(Arrays.copyOf(ordinals, size), Arrays.copyOf(levels, size));
+    }
+
+    public int size() {
+        return ordinals.length;
+    }
+
+    public boolean isEmpty() {
+        return ordinals.length == 0;
+    }
+
+    public int ordinal(int index) {
+        return ordinals[index];
+    }
+
+    public int level(int index) {
+        return levels[index];
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        return other instanceof EnchantLevels that
+            && Arrays.equals(ordinals, that.ordinals)
+            && Arrays.equals(levels, that.levels);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(ordinals) + Arrays.hashCode(levels);
+    }
+}
@@ -1,9 +1,9 @@
 package com.moonrein.moonEnchant.util;
 
+import com.moonrein.moonEnchant.enchant.EnchantRegistry;
+import io.papermc.paper.persistence.PersistentDataContainerView;
 import java.util.Collections;
-import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.stream.Collectors;
 import org.bukkit.NamespacedKey;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
@@ -12,40 +12,72 @@ import org.bukkit.persistence.PersistentDataType;
 
 public class ItemEnchantStorage {
     private final NamespacedKey key;
+    private final EnchantRegistry registry;
+    private final DecodedEnchantCache cache;
 
-    public ItemEnchantStorage(NamespacedKey key) {
+    public ItemEnchantStorage(NamespacedKey key, EnchantRegistry registry, DecodedEnchantCache cache) {
         this.key = key;
+        this.registry = registry;
+        this.cache = cache;
     }
 
-    public Map<String, Integer> getEnchantments(ItemStack itemStack) {
-        if (itemStack == null || !itemStack.hasItemMeta()) {
-            return Collections.emptyMap();
+    /**
+     * Decodes the item's enchants into registry ordinals. Unknown enchant ids are skipped.
+     * The raw value is read through the item's PDC view, so no meta is cloned, and decoded
+     * results are shared through the cache for identical stored values.
+     */
+    public EnchantLevels getEnchantLevels(ItemStack itemStack) {
+        PersistentDataContainerView container = readContainer(itemStack);
+        if (container == null) {
+            return EnchantLevels.EMPTY;
         }
-        ItemMeta meta = itemStack.getItemMeta();
-        if (meta == null) {
-            return Collections.emptyMap();
+        // One registry snapshot per decode, so cached ordinals always match the version they are stored under.
+        EnchantRegistry.Snapshot snapshot = registry.getSnapshot();
+        int version = snapshot.getVersion();
+        if (container.has(key, PersistentDataType.BYTE_ARRAY)) {
+            byte[] data = container.get(key, PersistentDataType.BYTE_ARRAY);
+            Object cacheKey = DecodedEnchantCache.keyOf(data);
+            EnchantLevels cached = cache.get(cacheKey, version);
+            if (cached != null) {
+                return cached;
+            }
+            EnchantLevels decoded = EnchantDataCodec.decodeLevels(data, snapshot);
+            cache.put(cacheKey, version, decoded);
+            return decoded;
         }
-        PersistentDataContainer container = meta.getPersistentDataContainer();
-        String raw = container.get(key, PersistentDataType.STRING);
-        if (raw == null || raw.isBlank()) {
+        if (container.has(key, PersistentDataType.STRING)) {
+            String raw = container.get(key, PersistentDataType.STRING);
+            Object cacheKey = DecodedEnchantCache.keyOf(raw);
+            EnchantLevels cached = cache.get(cacheKey, version);
+            if (cached != null) {
+                return cached;
+            }
+            EnchantLevels decoded = EnchantDataCodec.decodeLegacyLevels(raw, snapshot);
+            cache.put(cacheKey, version, decoded);
+            return decoded;
+        }
+        return EnchantLevels.EMPTY;
+    }
+
+    public Map<String, Integer> getEnchantments(ItemStack itemStack) {
+        PersistentDataContainerView container = readContainer(itemStack);
+        if (container == null) {
             return Collections.emptyMap();
         }
-        Map<String, Integer> result = new LinkedHashMap<>();
-        for (String entry : raw.split(";")) {
-            String[] parts = entry.split(":");
-            if (parts.length != 2) {
-                continue;
-            }
-            try {
-                int level = Integer.parseInt(parts[1]);
-                result.put(parts[0], level);
-            } catch (NumberFormatException ignored) {
-                continue;
-            }
+        if (container.has(key, PersistentDataType.BYTE_ARRAY)) {
+            byte[] data = container.get(key, PersistentDataType.BYTE_ARRAY);
+            return EnchantDataCodec.decodeMap(data, registry.getSnapshot().getIds());
+        }
+        if (container.has(key, PersistentDataType.STRING)) {
+            return EnchantDataCodec.decodeLegacyMap(container.get(key, PersistentDataType.STRING));
         }
-        return result;
+        return Collections.emptyMap();
     }
 
+    /**
+     * Writes the enchants in the binary format, using the persisted enchant numbers. Items still
+     * carrying the legacy {@code "id:level;id:level"} string are upgraded the first time they are written.
+     */
     public void setEnchantments(ItemStack itemStack, Map<String, Integer> enchantments) {
         if (itemStack == null) {
             return;
@@ -58,11 +90,20 @@ public class ItemEnchantStorage {
         if (enchantments.isEmpty()) {
             container.remove(key);
         } else {
-            String value = enchantments.entrySet().stream()
-                .map(entry -> entry.getKey() + ":" + entry.getValue())
-                .collect(Collectors.joining(";"));
-            container.set(key, PersistentDataType.STRING, value);
+            container.set(key, PersistentDataType.BYTE_ARRAY, EnchantDataCodec.encode(enchantments,
+                registry.getSnapshot().getIds()));
         }
         itemStack.setItemMeta(meta);
     }
+
+    public DecodedEnchantCache.Stats getCacheStats() {
+        return cache.getStats();
+    }
+
+    private PersistentDataContainerView readContainer(ItemStack itemStack) {
+        if (itemStack == null || !itemStack.hasItemMeta()) {
+            return null;
+        }
+        return itemStack.getPersistentDataContainer();
+    }
 }
@@ -0,0 +1,78 @@
+package com.moonrein.moonEnchant;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+import io.papermc.paper.registry.RegistryAccess;
+import io.papermc.paper.registry.RegistryKey;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import org.bukkit.Keyed;
+import org.bukkit.NamespacedKey;
+import org.bukkit.Registry;
+import org.bukkit.potion.PotionEffectType;
+import org.mockito.Answers;
+
+/**
+ * Registry access picked up through {@code META-INF/services} when no server implementation is on
+ * the test classpath. The potion effect registry returns a distinct stub per key, so
+ * {@link PotionEffectType}'s constants resolve and tests can mock effect types; every other registry
+ * is empty.
+ * <p>
+ * Registry class initialisation re-enters this class for each registry field, so the caches are
+ * plain maps under a reentrant lock rather than {@code computeIfAbsent}.
+ */
+public final class TestRegistryAccess implements RegistryAccess {
+    private static final Map<Object, Registry<?>> REGISTRIES = new HashMap<>();
+    private static final Map<Object, PotionEffectType> EFFECTS = new HashMap<>();
+
+    @Override
+    @Deprecated
+    public <T extends Keyed> Registry<T> getRegistry(Class<T> type) {
+        return registry(type, false);
+    }
+
+    @Override
+    public <T extends Keyed> Registry<T> getRegistry(RegistryKey<T> key) {
+        return registry(key, RegistryKey.MOB_EFFECT.equals(key));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static synchronized <T extends Keyed> Registry<T> registry(Object id, boolean effects) {
+        Registry<?> registry = REGISTRIES.get(id);
+        if (registry == null) {
+            registry = mock(Registry.class, withSettings().stubOnly().defaultAnswer(invocation ->
+                switch (invocation.getMethod().getName()) {
+                    case "get" -> effects ? effect(invocation.getArgument(0)) : null;
+                    case "getOrThrow" -> {
+                        if (!effects) {
+                            throw new NoSuchElementException("No registry entry " + invocation.getArgument(0));
+                        }
+                        yield effect(invocation.getArgument(0));
+                    }
+                    case "iterator" -> Collections.emptyIterator();
+                    case "spliterator" -> Spliterators.emptySpliterator();
+                    case "stream" -> Stream.empty();
+                    default -> Answers.RETURNS_DEFAULTS.answer(invocation);
+                }));
+            REGISTRIES.put(id, registry);
+        }
+        return (Registry<T>) registry;
+    }
+
+    private static synchronized PotionEffectType effect(Object key) {
+        PotionEffectType effect = EFFECTS.get(key);
+        if (effect == null) {
+            effect = mock(PotionEffectType.class, withSettings().stubOnly().defaultAnswer(invocation ->
+                "getKey".equals(invocation.getMethod().getName()) && key instanceof NamespacedKey
+                    ? key
+                    : Answers.RETURNS_DEFAULTS.answer(invocation)));
+            EFFECTS.put(key, effect);
+        }
+        return effect;
+    }
+}
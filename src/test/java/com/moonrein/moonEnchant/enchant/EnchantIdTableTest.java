@@ -0,0 +1,59 @@
+package com.moonrein.moonEnchant.enchant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class EnchantIdTableTest {
+    @Test
+    void numbersNewIdsAfterExistingOnes() {
+        EnchantIdTable table = EnchantIdTable.of(Map.of("lifesteal", 1, "frost", 4));
+
+        EnchantIdTable extended = table.withIds(List.of("frost", "Venom", "thunder"));
+
+        assertEquals(4, extended.getNumber("frost"));
+        assertEquals(5, extended.getNumber("venom"));
+        assertEquals(6, extended.getNumber("THUNDER"));
+        assertEquals("venom", extended.getId(5));
+        assertEquals(0, table.getNumber("venom"));
+    }
+
+    @Test
+    void returnsSameTableWhenNothingIsNew() {
+        EnchantIdTable table = EnchantIdTable.EMPTY.withIds(List.of("lifesteal", "frost"));
+
+        assertSame(table, table.withIds(List.of("FROST")));
+    }
+
+    @Test
+    void keepsNumbersOfRemovedIds() {
+        EnchantIdTable table = EnchantIdTable.EMPTY.withIds(List.of("lifesteal", "frost"));
+
+        EnchantIdTable reloaded = EnchantIdTable.of(table.getAssignments()).withIds(List.of("frost", "venom"));
+
+        assertEquals(1, reloaded.getNumber("lifesteal"));
+        assertEquals(3, reloaded.getNumber("venom"));
+    }
+
+    @Test
+    void reportsUnassignedNumbers() {
+        EnchantIdTable table = EnchantIdTable.of(Map.of("lifesteal", 2));
+
+        assertNull(table.getId(0));
+        assertNull(table.getId(1));
+        assertNull(table.getId(3));
+        assertNull(table.getId(-1));
+        assertEquals(0, table.getNumber(null));
+    }
+
+    @Test
+    void rejectsInvalidAssignments() {
+        assertThrows(IllegalArgumentException.class, () -> EnchantIdTable.of(Map.of("lifesteal", 0)));
+        assertThrows(IllegalArgumentException.class, () -> EnchantIdTable.of(Map.of("lifesteal", 1, "frost", 1)));
+    }
+}
@@ -0,0 +1,85 @@
+package com.moonrein.moonEnchant.enchant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.moonrein.moonEnchant.model.EnchantDefinition;
+import com.moonrein.moonEnchant.model.EnchantRarity;
+import com.moonrein.moonEnchant.model.EnchantTableRequirement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class EnchantRegistryTest {
+    @Test
+    void buildDoesNotPublish() {
+        EnchantRegistry registry = new EnchantRegistry();
+        EnchantRegistry.Snapshot published = registry.getSnapshot();
+
+        EnchantRegistry.Snapshot built = registry.build(definitions("lifesteal"), EnchantIdTable.EMPTY);
+
+        assertSame(published, registry.getSnapshot());
+        registry.publish(built);
+        assertSame(built, registry.getSnapshot());
+        assertEquals(0, registry.getOrdinal("LifeSteal"));
+    }
+
+    @Test
+    void rejectsStaleSnapshot() {
+        EnchantRegistry registry = new EnchantRegistry();
+        EnchantRegistry.Snapshot older = registry.build(definitions("lifesteal"), EnchantIdTable.EMPTY);
+        EnchantRegistry.Snapshot newer = registry.build(definitions("frost"), EnchantIdTable.EMPTY);
+
+        registry.publish(newer);
+
+        assertThrows(IllegalArgumentException.class, () -> registry.publish(older));
+        assertSame(newer, registry.getSnapshot());
+    }
+
+    @Test
+    void remapsOrdinalsById() {
+        EnchantRegistry registry = new EnchantRegistry();
+        EnchantRegistry.Snapshot before = registry.build(definitions("lifesteal", "frost", "venom"),
+            EnchantIdTable.EMPTY);
+        EnchantRegistry.Snapshot after = registry.build(definitions("venom", "thunder", "lifesteal"),
+            EnchantIdTable.EMPTY);
+
+        EnchantRegistry.Remap remap = after.remapFrom(before);
+
+        assertEquals(2, remap.ordinal(0));
+        assertEquals(-1, remap.ordinal(1));
+        assertEquals(0, remap.ordinal(2));
+        assertEquals(-1, remap.ordinal(3));
+        assertEquals(before.getVersion(), remap.getFromVersion());
+        assertEquals(after.getVersion(), remap.getToVersion());
+    }
+
+    @Test
+    void matchesIdsIndependentlyOfDefaultLocale() {
+        Locale defaultLocale = Locale.getDefault();
+        Locale.setDefault(Locale.forLanguageTag("tr-TR"));
+        try {
+            EnchantIdTable ids = EnchantIdTable.EMPTY.withIds(List.of("LIFESTEAL"));
+            EnchantRegistry registry = new EnchantRegistry();
+            registry.publish(registry.build(definitions("LIFESTEAL"), ids));
+
+            assertEquals(0, registry.getOrdinal("lifesteal"));
+            assertEquals(0, registry.getSnapshot().getOrdinalByNumber(ids.getNumber("LIFESTEAL")));
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+
+    private static List<EnchantDefinition> definitions(String... ids) {
+        List<EnchantDefinition> definitions = new ArrayList<>();
+        for (String id : ids) {
+            definitions.add(new EnchantDefinition(id, id, List.of(), EnchantRarity.COMMON, 5, 10, Set.of(), Set.of(), 1,
+                List.of(), List.of(), Map.of(), 0.0, 0.0, 0.0, new EnchantTableRequirement(true, 1, 30, 0)));
+        }
+        return definitions;
+    }
+}
@@ -0,0 +1,116 @@
+package com.moonrein.moonEnchant.enchant;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+
+import com.moonrein.moonEnchant.model.EffectRecipient;
+import com.moonrein.moonEnchant.model.EffectSpec;
+import com.moonrein.moonEnchant.model.EnchantDefinition;
+import com.moonrein.moonEnchant.model.EnchantLevelConfig;
+import com.moonrein.moonEnchant.model.EnchantRarity;
+import com.moonrein.moonEnchant.model.EnchantTableRequirement;
+import com.moonrein.moonEnchant.model.EnchantTrigger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalDouble;
+import java.util.Set;
+import org.bukkit.potion.PotionEffectType;
+import org.junit.jupiter.api.Test;
+
+class TriggerDispatchTableTest {
+    private static final PotionEffectType SLOWNESS = mock(PotionEffectType.class);
+    private static final PotionEffectType WEAKNESS = mock(PotionEffectType.class);
+    private static final PotionEffectType SPEED = mock(PotionEffectType.class);
+
+    // Ordinal 0 owns effect slots 0-1, so frost's effects start at slot 2.
+    private static final EnchantDefinition VENOM = definition("venom", 2, Map.of(),
+        effect("poison", EnchantTrigger.ON_HIT, WEAKNESS),
+        effect("haste", EnchantTrigger.PASSIVE, SPEED));
+    private static final EnchantDefinition FROST = definition("frost", 4,
+        Map.of(1, level("slow"), 3, level("slow", "weak")),
+        effect("slow", EnchantTrigger.ON_HIT, SLOWNESS),
+        effect("weak", EnchantTrigger.ON_HIT, WEAKNESS),
+        effect("freeze", EnchantTrigger.ON_HIT, SLOWNESS),
+        effect("swift", EnchantTrigger.PASSIVE, SPEED));
+
+    private final TriggerDispatchTable table = TriggerDispatchTable.compile(List.of(VENOM, FROST));
+
+    @Test
+    void usesClosestConfiguredLevelBelow() {
+        TriggerDispatchTable.CompiledTriggerEffects onHit = table.get(EnchantTrigger.ON_HIT, 1);
+
+        assertEquals(List.of("slow"), keys(onHit.effectsFor(1)));
+        assertEquals(List.of("slow"), keys(onHit.effectsFor(2)));
+        assertEquals(List.of("slow", "weak"), keys(onHit.effectsFor(3)));
+    }
+
+    @Test
+    void clampsLevelsAboveTheTopLevel() {
+        TriggerDispatchTable.CompiledTriggerEffects onHit = table.get(EnchantTrigger.ON_HIT, 1);
+
+        assertEquals(List.of("slow", "weak"), keys(onHit.effectsFor(4)));
+        assertEquals(List.of("slow", "weak"), keys(onHit.effectsFor(100)));
+        assertArrayEquals(onHit.effectSlotsFor(4), onHit.effectSlotsFor(100));
+    }
+
+    @Test
+    void levelZeroFallsBackToAllEffectsOfTheTrigger() {
+        TriggerDispatchTable.CompiledTriggerEffects onHit = table.get(EnchantTrigger.ON_HIT, 1);
+
+        assertEquals(List.of("slow", "weak", "freeze"), keys(onHit.effectsFor(0)));
+        assertEquals(List.of("slow", "weak", "freeze"), keys(onHit.effectsFor(-1)));
+    }
+
+    @Test
+    void resolvesEffectSlotsFromTheEnchantBase() {
+        assertEquals(6, table.getEffectSlotCount());
+        assertEquals(0, table.getEffectSlotBase(0));
+        assertEquals(2, table.getEffectSlotBase(1));
+
+        TriggerDispatchTable.CompiledTriggerEffects onHit = table.get(EnchantTrigger.ON_HIT, 1);
+        assertArrayEquals(new int[] {2, 3, 4}, onHit.effectSlotsFor(0));
+        assertArrayEquals(new int[] {2}, onHit.effectSlotsFor(2));
+        assertArrayEquals(new int[] {2, 3}, onHit.effectSlotsFor(3));
+        assertArrayEquals(new int[] {5}, table.get(EnchantTrigger.PASSIVE, 1).effectSlotsFor(0));
+        assertArrayEquals(new int[] {1}, table.get(EnchantTrigger.PASSIVE, 0).effectSlotsFor(1));
+    }
+
+    @Test
+    void sharesCooldownSlotsPerEnchantAndPotionType() {
+        assertEquals(2, table.getCooldownSlot(2));
+        assertEquals(3, table.getCooldownSlot(3));
+        assertEquals(2, table.getCooldownSlot(4));
+        assertEquals(0, table.getCooldownSlot(0));
+    }
+
+    @Test
+    void returnsNullForTriggersWithoutEffects() {
+        assertNull(table.get(EnchantTrigger.ON_KILL, 0));
+        assertNull(table.get(EnchantTrigger.ON_HIT, 2));
+    }
+
+    private static List<String> keys(EffectSpec[] effects) {
+        List<String> keys = new ArrayList<>();
+        for (EffectSpec effect : effects) {
+            keys.add(effect.getKey());
+        }
+        return keys;
+    }
+
+    private static EnchantLevelConfig level(String... effects) {
+        return new EnchantLevelConfig(OptionalDouble.empty(), List.of(effects));
+    }
+
+    private static EffectSpec effect(String key, EnchantTrigger trigger, PotionEffectType type) {
+        return new EffectSpec(key, trigger, EffectRecipient.SELF, type, 0, 100, 1.0, 0, false, false, false);
+    }
+
+    private static EnchantDefinition definition(String id, int maxLevel, Map<Integer, EnchantLevelConfig> levels,
+                                                EffectSpec... effects) {
+        return new EnchantDefinition(id, id, List.of(), EnchantRarity.COMMON, maxLevel, 10, Set.of(), Set.of(), 1,
+            List.of(), List.of(effects), levels, 0.0, 0.0, 0.0, new EnchantTableRequirement(true, 1, 30, 0));
+    }
+}
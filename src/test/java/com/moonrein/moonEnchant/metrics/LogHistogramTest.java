@@ -0,0 +1,84 @@
+package com.moonrein.moonEnchant.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+class LogHistogramTest {
+    @Test
+    void bucketsSmallValuesExactly() {
+        assertEquals(7, bucketOf(7));
+        assertEquals(7, LogHistogram.upperBound(7));
+        assertEquals(8, bucketOf(8));
+        assertEquals(8, LogHistogram.upperBound(8));
+        assertEquals(15, bucketOf(15));
+        assertEquals(15, LogHistogram.upperBound(15));
+    }
+
+    @Test
+    void splitsEachPowerOfTwoIntoSubBuckets() {
+        // From 16 up each sub-bucket spans two values, from 32 four, and so on.
+        assertEquals(16, bucketOf(16));
+        assertEquals(16, bucketOf(17));
+        assertEquals(17, LogHistogram.upperBound(16));
+        assertEquals(17, bucketOf(18));
+    }
+
+    @Test
+    void putsLongMaxValueInTheLastBucket() {
+        int last = new LogHistogram().bucketCounts().length - 1;
+
+        assertEquals(last, bucketOf(Long.MAX_VALUE));
+        assertEquals(Long.MAX_VALUE, LogHistogram.upperBound(last));
+    }
+
+    @Test
+    void reportsTheUpperBoundOfThePercentileBucket() {
+        LogHistogram histogram = new LogHistogram();
+        for (int i = 0; i < 9; i++) {
+            histogram.record(20);
+        }
+        histogram.record(1_000);
+
+        assertEquals(21, histogram.percentile(0.5));
+        assertEquals(21, histogram.percentile(0.9));
+        assertEquals(1_000, histogram.percentile(0.99));
+    }
+
+    @Test
+    void capsPercentilesAtTheRecordedMaximum() {
+        LogHistogram histogram = new LogHistogram();
+        histogram.record(16);
+
+        assertEquals(16, histogram.percentile(0.5));
+    }
+
+    @Test
+    void resetClearsEverything() {
+        LogHistogram histogram = new LogHistogram();
+        histogram.record(5);
+        histogram.record(500);
+
+        histogram.reset();
+
+        assertEquals(0, histogram.count());
+        assertEquals(0, histogram.sum());
+        assertEquals(0, histogram.max());
+        assertEquals(0, histogram.percentile(0.99));
+        for (long bucketCount : histogram.bucketCounts()) {
+            assertEquals(0, bucketCount);
+        }
+    }
+
+    private static int bucketOf(long value) {
+        LogHistogram histogram = new LogHistogram();
+        histogram.record(value);
+        long[] counts = histogram.bucketCounts();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != 0) {
+                return i;
+            }
+        }
+        throw new AssertionError("no bucket recorded " + value);
+    }
+}
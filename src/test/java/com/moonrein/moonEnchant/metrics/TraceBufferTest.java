@@ -0,0 +1,84 @@
+package com.moonrein.moonEnchant.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.moonrein.moonEnchant.model.EnchantTrigger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class TraceBufferTest {
+    private static final UUID ALICE = new UUID(1L, 1L);
+    private static final UUID BOB = new UUID(2L, 2L);
+
+    @Test
+    void roundsCapacityUpToAPowerOfTwo() {
+        assertEquals(16, new TraceBuffer(1).getCapacity());
+        assertEquals(16, new TraceBuffer(16).getCapacity());
+        assertEquals(32, new TraceBuffer(20).getCapacity());
+        assertFalse(new TraceBuffer(0).isEnabled());
+    }
+
+    @Test
+    void keepsOnlyTheNewestEventsOnceWrapped() {
+        TraceBuffer buffer = new TraceBuffer(16);
+        for (int tick = 0; tick < 40; tick++) {
+            record(buffer, ALICE, tick);
+        }
+
+        List<TraceBuffer.Event> events = buffer.recent(null, 100);
+
+        assertEquals(16, events.size());
+        assertEquals(39L, events.get(0).tick());
+        assertEquals(24L, events.get(15).tick());
+        assertEquals(39L, events.get(0).sequence());
+    }
+
+    @Test
+    void returnsTheLatestEventsNewestFirst() {
+        TraceBuffer buffer = new TraceBuffer(16);
+        for (int tick = 0; tick < 10; tick++) {
+            record(buffer, ALICE, tick);
+        }
+
+        assertEquals(List.of(9L, 8L, 7L), ticks(buffer.recent(null, 3)));
+    }
+
+    @Test
+    void filtersByPlayer() {
+        TraceBuffer buffer = new TraceBuffer(16);
+        for (int tick = 0; tick < 20; tick++) {
+            record(buffer, tick % 2 == 0 ? ALICE : BOB, tick);
+        }
+
+        List<TraceBuffer.Event> alice = buffer.recent(ALICE, 100);
+
+        // Only the last 16 events are kept, half of them Alice's.
+        assertEquals(List.of(18L, 16L, 14L, 12L, 10L, 8L, 6L, 4L), ticks(alice));
+        assertTrue(alice.stream().allMatch(event -> event.playerId().equals(ALICE)));
+        assertEquals(List.of(19L, 17L), ticks(buffer.recent(BOB, 2)));
+    }
+
+    @Test
+    void disabledBufferRecordsNothing() {
+        TraceBuffer buffer = new TraceBuffer(0);
+        record(buffer, ALICE, 0);
+
+        assertTrue(buffer.recent(null, 10).isEmpty());
+    }
+
+    private static void record(TraceBuffer buffer, UUID playerId, long tick) {
+        buffer.record(playerId, tick, EnchantTrigger.ON_HIT, 1, 0, 0, TraceBuffer.Outcome.APPLIED, 0.1, 0.5, 1.0);
+    }
+
+    private static List<Long> ticks(List<TraceBuffer.Event> events) {
+        List<Long> ticks = new ArrayList<>();
+        for (TraceBuffer.Event event : events) {
+            ticks.add(event.tick());
+        }
+        return ticks;
+    }
+}
@@ -0,0 +1,67 @@
+package com.moonrein.moonEnchant.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class ApplyQueueTest {
+    @Test
+    void dropsOldestWhenFull() {
+        ApplyQueue<String> queue = new ApplyQueue<>(2, ApplyQueue.OverflowPolicy.DROP_OLDEST);
+
+        queue.offer("a");
+        queue.offer("b");
+        assertTrue(queue.offer("c"));
+
+        assertEquals(List.of("b", "c"), drain(queue));
+        assertEquals(1, queue.getDropped());
+    }
+
+    @Test
+    void dropsNewestWhenFull() {
+        ApplyQueue<String> queue = new ApplyQueue<>(2, ApplyQueue.OverflowPolicy.DROP_NEWEST);
+
+        queue.offer("a");
+        queue.offer("b");
+        assertFalse(queue.offer("c"));
+
+        assertEquals(List.of("a", "b"), drain(queue));
+        assertEquals(1, queue.getDropped());
+    }
+
+    @Test
+    void mergesOverflowPerKey() {
+        ApplyQueue<String> queue = new ApplyQueue<>(1, ApplyQueue.OverflowPolicy.MERGE,
+            element -> element.charAt(0), (pending, incoming) -> pending + "+" + incoming);
+
+        queue.offer("a1");
+        queue.offer("a2");
+        queue.offer("b1");
+        queue.offer("a3");
+        assertEquals(3, queue.size());
+
+        List<String> drained = drain(queue);
+        assertEquals("a1", drained.get(0));
+        assertTrue(drained.containsAll(List.of("a2+a3", "b1")));
+        assertEquals(3, drained.size());
+        assertEquals(0, queue.getDropped());
+        assertEquals(1, queue.getMerged());
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    void requiresMergerForMergePolicy() {
+        assertThrows(IllegalArgumentException.class, () -> new ApplyQueue<>(1, ApplyQueue.OverflowPolicy.MERGE));
+    }
+
+    private static List<String> drain(ApplyQueue<String> queue) {
+        List<String> drained = new ArrayList<>();
+        queue.drain(drained::add);
+        return drained;
+    }
+}
@@ -0,0 +1,87 @@
+package com.moonrein.moonEnchant.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class EnchantExecutorTest {
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final List<String> shedTasks = new ArrayList<>();
+    private EnchantExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdown(1000L);
+    }
+
+    @Test
+    void notifiesRejectedTaskUnderDropNewest() throws InterruptedException {
+        executor = busyExecutor(EnchantExecutor.OverflowPolicy.DROP_NEWEST);
+
+        submit(null, "queued");
+        submit(null, "rejected");
+
+        assertEquals(List.of("rejected"), shedTasks);
+        assertEquals(1, executor.getShed());
+    }
+
+    @Test
+    void notifiesEvictedTaskUnderDropOldest() throws InterruptedException {
+        executor = busyExecutor(EnchantExecutor.OverflowPolicy.DROP_OLDEST);
+
+        submit(null, "evicted");
+        submit(null, "queued");
+
+        assertEquals(List.of("evicted"), shedTasks);
+    }
+
+    @Test
+    void notifiesReplacedTaskUnderCoalesce() throws InterruptedException {
+        executor = busyExecutor(EnchantExecutor.OverflowPolicy.COALESCE);
+
+        submit("player", "replaced");
+        submit("player", "queued");
+        submit(null, "rejected");
+
+        assertEquals(List.of("replaced", "rejected"), shedTasks);
+    }
+
+    @Test
+    void notifiesTasksSubmittedAfterShutdown() {
+        executor = new EnchantExecutor(EnchantExecutor.Mode.FIXED, 1, 1, EnchantExecutor.OverflowPolicy.DROP_NEWEST);
+        executor.shutdown(1000L);
+
+        submit(null, "late");
+
+        assertEquals(List.of("late"), shedTasks);
+    }
+
+    /**
+     * One worker blocked on {@link #release} and room for one waiting task.
+     */
+    private EnchantExecutor busyExecutor(EnchantExecutor.OverflowPolicy policy) throws InterruptedException {
+        EnchantExecutor busy = new EnchantExecutor(EnchantExecutor.Mode.FIXED, 1, 1, policy);
+        busy.execute(() -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        return busy;
+    }
+
+    private void submit(Object key, String name) {
+        executor.execute(key, () -> { }, () -> shedTasks.add(name));
+    }
+}
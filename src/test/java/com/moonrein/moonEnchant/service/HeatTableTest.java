@@ -0,0 +1,59 @@
+package com.moonrein.moonEnchant.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.Test;
+
+class HeatTableTest {
+    // 20 heat per second cools one heat per tick.
+    private static final double DECAY = 20.0;
+
+    @Test
+    void decaysLinearlyAcrossGapsBetweenWrites() {
+        HeatTable heat = HeatTable.EMPTY.with(3, 10.0, DECAY, 100);
+
+        assertEquals(10.0, heat.get(3, DECAY, 100), 1e-9);
+        assertEquals(6.0, heat.get(3, DECAY, 104), 1e-9);
+
+        heat = heat.with(3, 10.0, DECAY, 104);
+        assertEquals(16.0, heat.get(3, DECAY, 104), 1e-9);
+        assertEquals(8.0, heat.get(3, DECAY, 112), 1e-9);
+    }
+
+    @Test
+    void clampsAtZeroOnceFullyCooled() {
+        HeatTable heat = HeatTable.EMPTY.with(0, 5.0, DECAY, 0);
+
+        assertEquals(0.0, heat.get(0, DECAY, 5), 1e-9);
+        assertEquals(0.0, heat.get(0, DECAY, 1_000), 1e-9);
+        assertEquals(3.0, heat.with(0, 3.0, DECAY, 1_000).get(0, DECAY, 1_000), 1e-9);
+    }
+
+    @Test
+    void dropsCooledEntriesOnWrite() {
+        HeatTable heat = HeatTable.EMPTY.with(0, 5.0, DECAY, 0).with(1, 5.0, DECAY, 0);
+
+        assertEquals(2, heat.size());
+        assertEquals(1, heat.with(1, 1.0, DECAY, 10).size());
+    }
+
+    @Test
+    void growsPastItsInitialLength() {
+        HeatTable heat = HeatTable.EMPTY;
+        for (int ordinal = 0; ordinal < 64; ordinal++) {
+            heat = heat.with(ordinal, ordinal + 1.0, 0.0, ordinal);
+        }
+
+        assertEquals(64, heat.size());
+        for (int ordinal = 0; ordinal < 64; ordinal++) {
+            assertEquals(ordinal + 1.0, heat.get(ordinal, 0.0, 1_000), 1e-9);
+        }
+        assertEquals(0.0, heat.get(64, 0.0, 1_000), 1e-9);
+    }
+
+    @Test
+    void ignoresUnknownOrdinals() {
+        assertSame(HeatTable.EMPTY, HeatTable.EMPTY.with(-1, 5.0, DECAY, 0));
+    }
+}
@@ -0,0 +1,56 @@
+package com.moonrein.moonEnchant.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class PassiveRefreshTest {
+    private static final int INTERVAL = EnchantService.PASSIVE_INTERVAL_TICKS;
+    private static final int CYCLES = 30;
+
+    @Test
+    void fortyTickEffectIsResentEveryCycleWithoutLapsing() {
+        assertEquals(CYCLES - 1, resends(40));
+    }
+
+    @Test
+    void fortyTickEffectIsNotResentTwiceInOneCycle() {
+        assertTrue(40 > EnchantService.passiveRefreshThreshold(40));
+    }
+
+    @Test
+    void sixtyTickEffectIsResentEveryOtherCycle() {
+        assertEquals((CYCLES - 1) / 2, resends(60));
+    }
+
+    @Test
+    void longEffectIsResentOnlyBeforeItWouldRunOut() {
+        assertEquals((CYCLES - 1) / 9, resends(200));
+    }
+
+    @Test
+    void effectShorterThanOneTickIsAlwaysResent() {
+        assertEquals(0, EnchantService.passiveRefreshThreshold(1));
+    }
+
+    /**
+     * Offers a {@code durationTicks} effect on every passive cycle after the first application and
+     * counts the resends, failing if the effect ever runs out before the cycle that refreshes it.
+     */
+    private static int resends(int durationTicks) {
+        int threshold = EnchantService.passiveRefreshThreshold(durationTicks);
+        long expiresAt = durationTicks;
+        int resends = 0;
+        for (int cycle = 1; cycle < CYCLES; cycle++) {
+            long tick = (long) cycle * INTERVAL;
+            long remaining = expiresAt - tick;
+            assertTrue(remaining > 0, "effect lapsed before cycle " + cycle);
+            if (remaining <= threshold) {
+                expiresAt = tick + durationTicks;
+                resends++;
+            }
+        }
+        return resends;
+    }
+}
@@ -0,0 +1,65 @@
+package com.moonrein.moonEnchant.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class TokenBucketTest {
+    @Test
+    void rejectsOnceEmpty() {
+        TokenBucket bucket = new TokenBucket(20.0);
+
+        assertEquals(20, drain(bucket, 0));
+        assertFalse(bucket.hasToken(0));
+        assertFalse(bucket.tryAcquire(0));
+    }
+
+    @Test
+    void refillsAtTheConfiguredRate() {
+        // 20 tokens per second is one per tick.
+        TokenBucket bucket = new TokenBucket(20.0);
+        drain(bucket, 0);
+
+        assertTrue(bucket.tryAcquire(1));
+        assertFalse(bucket.tryAcquire(1));
+        assertEquals(5, drain(bucket, 6));
+    }
+
+    @Test
+    void refillsFractionalRatesAcrossTicks() {
+        // Two tokens per second is one every ten ticks.
+        TokenBucket bucket = new TokenBucket(2.0);
+        drain(bucket, 0);
+
+        assertFalse(bucket.hasToken(9));
+        assertTrue(bucket.tryAcquire(10));
+        assertFalse(bucket.hasToken(10));
+    }
+
+    @Test
+    void capsTokensAtOneSecondOfRate() {
+        TokenBucket bucket = new TokenBucket(20.0);
+        drain(bucket, 0);
+
+        assertEquals(20, drain(bucket, 10_000));
+    }
+
+    @Test
+    void holdsAtLeastOneTokenForSlowRates() {
+        TokenBucket bucket = new TokenBucket(0.5);
+
+        assertEquals(1, drain(bucket, 0));
+        assertFalse(bucket.hasToken(39));
+        assertTrue(bucket.hasToken(40));
+    }
+
+    private static int drain(TokenBucket bucket, long tick) {
+        int taken = 0;
+        while (bucket.tryAcquire(tick)) {
+            taken++;
+        }
+        return taken;
+    }
+}
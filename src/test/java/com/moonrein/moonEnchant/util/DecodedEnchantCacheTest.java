@@ -0,0 +1,72 @@
+package com.moonrein.moonEnchant.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.Test;
+
+class DecodedEnchantCacheTest {
+    private static final int VERSION = 1;
+
+    @Test
+    void evictsLeastRecentlyUsedEntry() {
+        DecodedEnchantCache cache = new DecodedEnchantCache(2);
+        EnchantLevels first = levels(0);
+        EnchantLevels second = levels(1);
+        cache.get("first", VERSION);
+        cache.put("first", VERSION, first);
+        cache.put("second", VERSION, second);
+
+        // Reading "first" makes "second" the eldest, so it goes when "third" arrives.
+        assertSame(first, cache.get("first", VERSION));
+        cache.put("third", VERSION, levels(2));
+
+        assertNull(cache.get("second", VERSION));
+        assertSame(first, cache.get("first", VERSION));
+        assertEquals(1, cache.getStats().evictions());
+        assertEquals(2, cache.getStats().size());
+    }
+
+    @Test
+    void countsHitsAndMisses() {
+        DecodedEnchantCache cache = new DecodedEnchantCache(8);
+        cache.get("a", VERSION);
+        cache.put("a", VERSION, levels(0));
+        cache.get("a", VERSION);
+        cache.get("a", VERSION);
+        cache.get("b", VERSION);
+
+        DecodedEnchantCache.Stats stats = cache.getStats();
+        assertEquals(2, stats.hits());
+        assertEquals(2, stats.misses());
+        assertEquals(0, stats.evictions());
+        assertEquals(8, stats.maxSize());
+    }
+
+    @Test
+    void looksUpBinaryKeysByContent() {
+        DecodedEnchantCache cache = new DecodedEnchantCache(8);
+        EnchantLevels levels = levels(3);
+        cache.get(DecodedEnchantCache.keyOf(new byte[] {1, 2, 3}), VERSION);
+        cache.put(DecodedEnchantCache.keyOf(new byte[] {1, 2, 3}), VERSION, levels);
+
+        assertSame(levels, cache.get(DecodedEnchantCache.keyOf(new byte[] {1, 2, 3}), VERSION));
+        assertNull(cache.get(DecodedEnchantCache.keyOf(new byte[] {1, 2, 4}), VERSION));
+    }
+
+    @Test
+    void dropsEntriesWhenTheRegistryVersionChanges() {
+        DecodedEnchantCache cache = new DecodedEnchantCache(8);
+        cache.get("a", VERSION);
+        cache.put("a", VERSION, levels(0));
+
+        assertNull(cache.get("a", VERSION + 1));
+        cache.put("a", VERSION, levels(0));
+        assertNull(cache.get("a", VERSION + 1));
+    }
+
+    private static EnchantLevels levels(int ordinal) {
+        return EnchantLevels.of(new int[] {ordinal}, new int[] {1}, 1);
+    }
+}
@@ -0,0 +1,223 @@
+package com.moonrein.moonEnchant.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.moonrein.moonEnchant.enchant.EnchantIdTable;
+import com.moonrein.moonEnchant.enchant.EnchantRegistry;
+import com.moonrein.moonEnchant.model.EnchantDefinition;
+import com.moonrein.moonEnchant.model.EnchantRarity;
+import com.moonrein.moonEnchant.model.EnchantTableRequirement;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+class EnchantDataCodecTest {
+    private static final EnchantIdTable IDS = EnchantIdTable.EMPTY.withIds(List.of("lifesteal", "frost", "thunder"));
+
+    @Test
+    void roundTripsNumberedEnchants() {
+        EnchantRegistry.Snapshot registry = registry(IDS, "lifesteal", "frost", "thunder");
+        Map<String, Integer> enchants = enchants("lifesteal", 3, "thunder", 1);
+
+        byte[] data = EnchantDataCodec.encode(enchants, IDS);
+
+        assertEquals(enchants, EnchantDataCodec.decodeMap(data, IDS));
+        assertEquals(levels(0, 3, 2, 1), EnchantDataCodec.decodeLevels(data, registry));
+    }
+
+    @Test
+    void storesNumberedEntriesInTwoBytes() {
+        Map<String, Integer> enchants = enchants("lifesteal", 3, "frost", 2, "thunder", 1);
+
+        byte[] data = EnchantDataCodec.encode(enchants, IDS);
+
+        assertEquals(2 + 2 * enchants.size(), data.length);
+        assertTrue(data.length < "lifesteal:3;frost:2;thunder:1".length() / 3);
+    }
+
+    @Test
+    void storesUnnumberedIdsInline() {
+        EnchantIdTable ids = EnchantIdTable.EMPTY.withIds(List.of("lifesteal"));
+        EnchantRegistry.Snapshot registry = registry(ids, "lifesteal", "frost");
+        Map<String, Integer> enchants = enchants("lifesteal", 2, "frost", 4);
+
+        byte[] data = EnchantDataCodec.encode(enchants, ids);
+
+        assertEquals(enchants, EnchantDataCodec.decodeMap(data, ids));
+        assertEquals(levels(0, 2, 1, 4), EnchantDataCodec.decodeLevels(data, registry));
+    }
+
+    @Test
+    void resolvesNumbersAgainstReorderedRegistry() {
+        byte[] data = EnchantDataCodec.encode(enchants("lifesteal", 3, "frost", 1), IDS);
+        EnchantIdTable reloaded = IDS.withIds(List.of("venom"));
+        // Ordinals follow load order, which changed; the stored numbers did not.
+        EnchantRegistry.Snapshot registry = registry(reloaded, "venom", "frost", "lifesteal");
+
+        assertEquals(levels(2, 3, 1, 1), EnchantDataCodec.decodeLevels(data, registry));
+    }
+
+    @Test
+    void skipsEnchantsMissingFromRegistry() {
+        byte[] data = EnchantDataCodec.encode(enchants("lifesteal", 3, "frost", 1), IDS);
+        EnchantRegistry.Snapshot registry = registry(IDS, "frost");
+
+        assertEquals(levels(0, 1), EnchantDataCodec.decodeLevels(data, registry));
+        assertEquals(enchants("lifesteal", 3, "frost", 1), EnchantDataCodec.decodeMap(data, IDS));
+    }
+
+    @Test
+    void skipsNumbersMissingFromTable() {
+        byte[] data = EnchantDataCodec.encode(enchants("lifesteal", 3, "thunder", 1), IDS);
+        EnchantIdTable older = EnchantIdTable.EMPTY.withIds(List.of("lifesteal"));
+
+        assertEquals(enchants("lifesteal", 3), EnchantDataCodec.decodeMap(data, older));
+    }
+
+    @Test
+    void decodesVersionOneInlineIds() {
+        byte[] data = versionOne("frost", 2, "LifeSteal", 5, "unknown", 1);
+        EnchantRegistry.Snapshot registry = registry(IDS, "lifesteal", "frost");
+
+        assertEquals(levels(1, 2, 0, 5), EnchantDataCodec.decodeLevels(data, registry));
+        assertEquals(enchants("frost", 2, "LifeSteal", 5, "unknown", 1), EnchantDataCodec.decodeMap(data, IDS));
+    }
+
+    @Test
+    void upgradesLegacyString() {
+        String legacy = "lifesteal:3;frost:x;broken;thunder:1;a:b:c;unknown:2;lifesteal:4";
+        EnchantRegistry.Snapshot registry = registry(IDS, "lifesteal", "frost", "thunder");
+
+        assertEquals(levels(0, 4, 2, 1), EnchantDataCodec.decodeLegacyLevels(legacy, registry));
+        Map<String, Integer> parsed = EnchantDataCodec.decodeLegacyMap(legacy);
+        assertEquals(enchants("lifesteal", 4, "thunder", 1, "unknown", 2), parsed);
+
+        byte[] upgraded = EnchantDataCodec.encode(parsed, IDS);
+        assertEquals(parsed, EnchantDataCodec.decodeMap(upgraded, IDS));
+        assertEquals(EnchantDataCodec.decodeLegacyLevels(legacy, registry),
+            EnchantDataCodec.decodeLevels(upgraded, registry));
+    }
+
+    @Test
+    void decodesBlankLegacyStringToEmpty() {
+        EnchantRegistry.Snapshot registry = registry(IDS, "lifesteal");
+
+        assertSame(EnchantLevels.EMPTY, EnchantDataCodec.decodeLegacyLevels("", registry));
+        assertSame(EnchantLevels.EMPTY, EnchantDataCodec.decodeLegacyLevels(null, registry));
+        assertTrue(EnchantDataCodec.decodeLegacyMap(" ").isEmpty());
+    }
+
+    @Test
+    void decodesTruncatedInputToEmpty() {
+        EnchantIdTable ids = EnchantIdTable.EMPTY.withIds(List.of("lifesteal"));
+        EnchantRegistry.Snapshot registry = registry(ids, "lifesteal", "frost");
+        byte[] numbered = EnchantDataCodec.encode(enchants("lifesteal", 300, "frost", 2), ids);
+        byte[] inline = versionOne("lifesteal", 1, "frost", 2);
+
+        for (byte[] data : List.of(numbered, inline)) {
+            for (int length = 0; length < data.length; length++) {
+                byte[] truncated = Arrays.copyOf(data, length);
+                assertSame(EnchantLevels.EMPTY, EnchantDataCodec.decodeLevels(truncated, registry), "length " + length);
+                assertTrue(EnchantDataCodec.decodeMap(truncated, ids).isEmpty(), "length " + length);
+            }
+        }
+    }
+
+    @Test
+    void rejectsUnknownVersionAndImpossibleCount() {
+        EnchantRegistry.Snapshot registry = registry(IDS, "lifesteal");
+        byte[] valid = EnchantDataCodec.encode(enchants("lifesteal", 1), IDS);
+        byte[] unknownVersion = valid.clone();
+        unknownVersion[0] = 3;
+        byte[] hugeCount = {EnchantDataCodec.VERSION, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07, 1, 1};
+
+        assertSame(EnchantLevels.EMPTY, EnchantDataCodec.decodeLevels(null, registry));
+        assertSame(EnchantLevels.EMPTY, EnchantDataCodec.decodeLevels(unknownVersion, registry));
+        assertSame(EnchantLevels.EMPTY, EnchantDataCodec.decodeLevels(hugeCount, registry));
+        assertTrue(EnchantDataCodec.decodeMap(hugeCount, IDS).isEmpty());
+    }
+
+    @Test
+    void decodesCorruptInputWithoutThrowing() {
+        EnchantRegistry.Snapshot registry = registry(IDS, "lifesteal", "frost", "thunder");
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < 20_000; i++) {
+            byte[] data = new byte[1 + random.nextInt(24)];
+            for (int j = 0; j < data.length; j++) {
+                data[j] = (byte) random.nextInt(256);
+            }
+            data[0] = (byte) (1 + random.nextInt(2));
+
+            EnchantLevels levels = EnchantDataCodec.decodeLevels(data, registry);
+            EnchantDataCodec.decodeMap(data, IDS);
+            for (int j = 0; j < levels.size(); j++) {
+                assertTrue(levels.ordinal(j) >= 0 && levels.ordinal(j) < registry.size());
+            }
+        }
+    }
+
+    @Test
+    void encodesEmptyMap() {
+        byte[] data = EnchantDataCodec.encode(Map.of(), IDS);
+
+        assertArrayEquals(new byte[] {EnchantDataCodec.VERSION, 0}, data);
+        assertSame(EnchantLevels.EMPTY, EnchantDataCodec.decodeLevels(data, registry(IDS, "lifesteal")));
+    }
+
+    private static EnchantRegistry.Snapshot registry(EnchantIdTable ids, String... enchantIds) {
+        List<EnchantDefinition> definitions = new ArrayList<>();
+        for (String id : enchantIds) {
+            definitions.add(new EnchantDefinition(id, id, List.of(), EnchantRarity.COMMON, 5, 10, Set.of(),
+                Set.of(), 1, List.of(), List.of(), Map.of(), 0.0, 0.0, 0.0,
+                new EnchantTableRequirement(true, 1, 30, 0)));
+        }
+        EnchantRegistry registry = new EnchantRegistry();
+        registry.replaceAll(definitions, ids);
+        return registry.getSnapshot();
+    }
+
+    private static Map<String, Integer> enchants(Object... idsAndLevels) {
+        Map<String, Integer> enchants = new LinkedHashMap<>();
+        for (int i = 0; i < idsAndLevels.length; i += 2) {
+            enchants.put((String) idsAndLevels[i], (Integer) idsAndLevels[i + 1]);
+        }
+        return enchants;
+    }
+
+    private static EnchantLevels levels(int... ordinalsAndLevels) {
+        int size = ordinalsAndLevels.length / 2;
+        int[] ordinals = new int[size];
+        int[] levels = new int[size];
+        for (int i = 0; i < size; i++) {
+            ordinals[i] = ordinalsAndLevels[i * 2];
+            levels[i] = ordinalsAndLevels[i * 2 + 1];
+        }
+        return EnchantLevels.of(ordinals, levels, size);
+    }
+
+    /**
+     * Writes the version 1 layout, which stored every id inline.
+     */
+    private static byte[] versionOne(Object... idsAndLevels) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(1);
+        out.write(idsAndLevels.length / 2);
+        for (int i = 0; i < idsAndLevels.length; i += 2) {
+            byte[] id = ((String) idsAndLevels[i]).getBytes(StandardCharsets.UTF_8);
+            out.write(id.length);
+            out.write(id, 0, id.length);
+            out.write((Integer) idsAndLevels[i + 1]);
+        }
+        return out.toByteArray();
+    }
+}